@@ -0,0 +1,69 @@
+package io.johnsanchez.sudokusolver.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.johnsanchez.sudokusolver.core.SolverEngine;
+import io.johnsanchez.sudokusolver.core.SudokuBoard;
+import io.johnsanchez.sudokusolver.core.SudokuSolver;
+
+/**
+ * How the solve time grows with the board, over random puzzles of {@link PuzzleSet#generate(int, int, double, long)}
+ * with the same ratio of blanks for every size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardSizeBenchmark {
+
+	private static final int PUZZLES = 20;
+
+	@Param({ "3", "4", "5" })
+	private int boxSize;
+
+	@Param({ "CORE", "DANCING_LINKS" })
+	private SolverEngine engine;
+
+	@Param({ "0.4" })
+	private double blanks;
+
+	private SudokuSolver solver;
+	private SudokuBoard reused;
+	private List<Integer[][]> values;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		solver = engine.newSolver();
+		reused = new SudokuBoard(boxSize);
+		values = PuzzleSet.generate(boxSize, PUZZLES, blanks, boxSize);
+	}
+
+	@Benchmark
+	public SudokuBoard construct() {
+		return new SudokuBoard(boxSize);
+	}
+
+	@Benchmark
+	public SudokuBoard solve() {
+		Integer[][] puzzle = values.get(next);
+		next = (next + 1) % values.size();
+		return solver.solve(reused, puzzle);
+	}
+}
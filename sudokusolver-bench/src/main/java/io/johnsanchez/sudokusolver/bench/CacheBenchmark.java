@@ -0,0 +1,75 @@
+package io.johnsanchez.sudokusolver.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.johnsanchez.sudokusolver.core.CachingSolver;
+import io.johnsanchez.sudokusolver.core.Canonicalizer;
+import io.johnsanchez.sudokusolver.core.SolverCore;
+import io.johnsanchez.sudokusolver.core.SudokuBoard;
+
+/**
+ * Latency of a {@link CachingSolver} hit against solving again, cycling through the puzzles of a {@link PuzzleSet}
+ * which are all in the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+	@Param({ "easy", "medium", "hard" })
+	private String puzzles;
+
+	private final Canonicalizer canonicalizer = new Canonicalizer();
+	private final SolverCore core = new SolverCore();
+	private final SudokuBoard reused = new SudokuBoard();
+	private CachingSolver cache;
+	private List<Integer[][]> values;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		values = PuzzleSet.load(puzzles);
+		cache = new CachingSolver(core, values.size());
+		for (Integer[][] puzzle : values) {
+			cache.solve(puzzle);
+		}
+	}
+
+	private Integer[][] nextPuzzle() {
+		Integer[][] puzzle = values.get(next);
+		next = (next + 1) % values.size();
+		return puzzle;
+	}
+
+	@Benchmark
+	public Canonicalizer.Form canonicalize() {
+		return canonicalizer.canonicalize(nextPuzzle());
+	}
+
+	@Benchmark
+	public SudokuBoard hit() {
+		return cache.solve(reused, nextPuzzle());
+	}
+
+	@Benchmark
+	public SudokuBoard solve() {
+		return core.solve(reused, nextPuzzle());
+	}
+}
@@ -0,0 +1,63 @@
+package io.johnsanchez.sudokusolver.bench;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.johnsanchez.sudokusolver.core.Difficulty;
+import io.johnsanchez.sudokusolver.core.PuzzleGenerator;
+
+/**
+ * Puzzles generated per second by difficulty and number of workers, see {@link PuzzleGenerator}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+
+	private static final int BATCH = 16;
+
+	@Param({ "EASY", "MEDIUM", "HARD", "EXPERT" })
+	private Difficulty difficulty;
+
+	@Param({ "1", "4" })
+	private int threads;
+
+	private ForkJoinPool pool;
+	private PuzzleGenerator generator;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		pool = new ForkJoinPool(threads);
+		generator = new PuzzleGenerator(3, 42, pool);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * One operation is a batch of {@value #BATCH} puzzles, so the score is puzzles per second divided by the batch.
+	 */
+	@Benchmark
+	public int generate() {
+		return generator.generate(difficulty, BATCH).size();
+	}
+}
@@ -0,0 +1,107 @@
+package io.johnsanchez.sudokusolver.bench;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.johnsanchez.sudokusolver.core.PackedPuzzleReader;
+import io.johnsanchez.sudokusolver.core.PackedPuzzleWriter;
+import io.johnsanchez.sudokusolver.core.PuzzleReader;
+import io.johnsanchez.sudokusolver.core.PuzzleWriter;
+import io.johnsanchez.sudokusolver.core.SudokuBoard;
+
+/**
+ * Time to read a file of {@value #PUZZLES} puzzles in the text format of {@link PuzzleReader} against the packed
+ * format of {@link PackedPuzzleReader}, into values or straight into a reused board.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBenchmark {
+
+	private static final int PUZZLES = 100000;
+
+	private final SudokuBoard board = new SudokuBoard();
+	private Path text;
+	private Path packed;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		List<Integer[][]> values = PuzzleSet.load("medium");
+		text = Files.createTempFile("puzzles", ".txt");
+		packed = Files.createTempFile("puzzles", ".pack");
+		try (PuzzleWriter lines = new PuzzleWriter(new FileOutputStream(text.toFile()));
+				PackedPuzzleWriter records = PackedPuzzleWriter.create(packed, 3)) {
+			for (int i = 0; i < PUZZLES; i++) {
+				lines.write(values.get(i % values.size()));
+				records.write(values.get(i % values.size()));
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.delete(text);
+		Files.delete(packed);
+	}
+
+	@Benchmark
+	public void text(Blackhole blackhole) throws IOException {
+		try (PuzzleReader reader = PuzzleReader.open(text)) {
+			Integer[][] values;
+			while ((values = reader.next()) != null) {
+				blackhole.consume(values);
+			}
+		}
+	}
+
+	@Benchmark
+	public void packed(Blackhole blackhole) throws IOException {
+		try (PackedPuzzleReader reader = PackedPuzzleReader.open(packed)) {
+			while (reader.hasNext()) {
+				blackhole.consume(reader.next());
+			}
+		}
+	}
+
+	@Benchmark
+	public SudokuBoard textToBoard() throws IOException {
+		try (PuzzleReader reader = PuzzleReader.open(text)) {
+			Integer[][] values;
+			while ((values = reader.next()) != null) {
+				board.load(values);
+			}
+		}
+		return board;
+	}
+
+	@Benchmark
+	public SudokuBoard packedToBoard() throws IOException {
+		try (PackedPuzzleReader reader = PackedPuzzleReader.open(packed)) {
+			while (reader.hasNext()) {
+				reader.loadNext(board);
+			}
+		}
+		return board;
+	}
+}
@@ -0,0 +1,68 @@
+package io.johnsanchez.sudokusolver.bench;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.johnsanchez.sudokusolver.core.ParallelSearch;
+import io.johnsanchez.sudokusolver.core.SudokuBoard;
+
+/**
+ * Latency of one search by the number of workers splitting it, see {@link ParallelSearch}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelSearchBenchmark {
+
+	private static final int SOLUTIONS = 10000;
+
+	@Param({ "1", "2", "4", "8" })
+	private int threads;
+
+	private ForkJoinPool pool;
+	private ParallelSearch search;
+	private List<Integer[][]> values;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		pool = new ForkJoinPool(threads);
+		search = new ParallelSearch(pool);
+		values = PuzzleSet.load("hard");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public SudokuBoard solveHard() {
+		Integer[][] puzzle = values.get(next);
+		next = (next + 1) % values.size();
+		return search.solve(puzzle);
+	}
+
+	@Benchmark
+	public int countEmpty() {
+		return search.countSolutions(new Integer[9][9], SOLUTIONS);
+	}
+}
@@ -0,0 +1,78 @@
+package io.johnsanchez.sudokusolver.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+import io.johnsanchez.sudokusolver.core.SolverEngine;
+
+/**
+ * Puzzles bundled with the benchmarks, one per line as 81 characters with <code>.</code> for a blank,
+ * and random puzzles of larger boards.
+ */
+public final class PuzzleSet {
+
+	private PuzzleSet() {
+	}
+
+	/**
+	 * @param name <code>easy</code>, <code>medium</code> or <code>hard</code>
+	 */
+	public static List<Integer[][]> load(String name) {
+		List<Integer[][]> puzzles = new ArrayList<>();
+		try (Scanner scanner = new Scanner(PuzzleSet.class.getResourceAsStream("/" + name + ".txt"))) {
+			while (scanner.hasNextLine()) {
+				String line = scanner.nextLine().trim();
+				if (!line.isEmpty()) {
+					puzzles.add(parse(line));
+				}
+			}
+		}
+		return puzzles;
+	}
+
+	/**
+	 * @param line one character per cell with the digits 1..9 and then the letters from <code>A</code> for 10,
+	 * anything else is a blank
+	 */
+	public static Integer[][] parse(String line) {
+		int size = (int) Math.round(Math.sqrt(line.length()));
+		Integer[][] values = new Integer[size][size];
+		for (int i = 0; i < size * size; i++) {
+			int digit = Character.digit(line.charAt(i), Character.MAX_RADIX);
+			values[i / size][i % size] = digit >= 1 && digit <= size ? digit : null;
+		}
+		return values;
+	}
+
+	/**
+	 * Blanks cells at random out of one solved board with its digits relabelled, so the puzzles have a solution
+	 * but not necessarily a unique one. With much more than 40% of the cells blanked, some of the large ones get very hard.
+	 * 
+	 * @param boxSize 3 for 9x9, 4 for 16x16, 5 for 25x25 puzzles
+	 * @param blanks the ratio of blanked cells
+	 */
+	public static List<Integer[][]> generate(int boxSize, int count, double blanks, long seed) {
+		int size = boxSize * boxSize;
+		Integer[][] solution = SolverEngine.DANCING_LINKS.solve(new Integer[size][size]).getContentValues();
+		Random random = new Random(seed);
+		List<Integer> labels = new ArrayList<>();
+		for (int value = 1; value <= size; value++) {
+			labels.add(value);
+		}
+		List<Integer[][]> puzzles = new ArrayList<>();
+		for (int k = 0; k < count; k++) {
+			Collections.shuffle(labels, random);
+			Integer[][] values = new Integer[size][size];
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					values[i][j] = random.nextDouble() < blanks ? null : labels.get(solution[i][j] - 1);
+				}
+			}
+			puzzles.add(values);
+		}
+		return puzzles;
+	}
+}
@@ -0,0 +1,108 @@
+package io.johnsanchez.sudokusolver.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.johnsanchez.sudokusolver.core.SolverCore;
+import io.johnsanchez.sudokusolver.core.SudokuBoard;
+
+/**
+ * Latency of the solver hot paths, cycling through the puzzles of a {@link PuzzleSet}.
+ * The single steps start from a new board, so the cost of a step alone is its score minus the score of
+ * {@link #setValues()}. {@link #load()} and {@link #solveReused()} reuse one board instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmark {
+
+	@Param({ "easy", "medium", "hard" })
+	private String puzzles;
+
+	private final SolverCore core = new SolverCore();
+	private final SudokuBoard reused = new SudokuBoard();
+	private List<Integer[][]> values;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		values = PuzzleSet.load(puzzles);
+	}
+
+	private Integer[][] nextPuzzle() {
+		Integer[][] puzzle = values.get(next);
+		next = (next + 1) % values.size();
+		return puzzle;
+	}
+
+	private SudokuBoard newBoard() {
+		SudokuBoard board = new SudokuBoard();
+		board.setValues(nextPuzzle());
+		return board;
+	}
+
+	@Benchmark
+	public SudokuBoard construct() {
+		return new SudokuBoard();
+	}
+
+	@Benchmark
+	public SudokuBoard setValues() {
+		return newBoard();
+	}
+
+	@Benchmark
+	public SudokuBoard load() {
+		reused.load(nextPuzzle());
+		return reused;
+	}
+
+	@Benchmark
+	public SudokuBoard solveNext() {
+		SudokuBoard board = newBoard();
+		for (int value = 1; value <= board.getSize(); value++) {
+			core.solveNext(board, value);
+		}
+		return board;
+	}
+
+	@Benchmark
+	public SudokuBoard reducePossibility() {
+		SudokuBoard board = newBoard();
+		core.reducePossibility(board);
+		return board;
+	}
+
+	@Benchmark
+	public SudokuBoard solveBrutefully() {
+		SudokuBoard board = newBoard();
+		core.solveBrutefully(board);
+		return board;
+	}
+
+	@Benchmark
+	public SudokuBoard solve() {
+		return core.solve(nextPuzzle());
+	}
+
+	@Benchmark
+	public SudokuBoard solveReused() {
+		return core.solve(reused, nextPuzzle());
+	}
+}
@@ -0,0 +1,82 @@
+package io.johnsanchez.sudokusolver.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.johnsanchez.sudokusolver.core.CoreStrategy;
+import io.johnsanchez.sudokusolver.core.Difficulty;
+import io.johnsanchez.sudokusolver.core.SolveListener;
+import io.johnsanchez.sudokusolver.core.SolverCore;
+import io.johnsanchez.sudokusolver.core.SolvingStrategy;
+import io.johnsanchez.sudokusolver.core.StrategyScheduler;
+import io.johnsanchez.sudokusolver.core.SudokuBoard;
+
+/**
+ * What the fish and the wings cost and save, added to the strategies of the default solver: {@link #solve()} searches
+ * once they stall, {@link #deduce()} stops there and so shows their cost without the guesses they save.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+
+	@Param({ "medium", "hard" })
+	private String puzzles;
+
+	@Param({ "default", "fish", "wings", "fishAndWings" })
+	private String strategies;
+
+	private final SudokuBoard reused = new SudokuBoard();
+	private SolverCore searching;
+	private SolverCore deducing;
+	private List<Integer[][]> values;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		values = PuzzleSet.load(puzzles);
+		List<SolvingStrategy> list = new ArrayList<>(CoreStrategy.of(Difficulty.EXPERT));
+		if (strategies.startsWith("fish")) {
+			list.add(CoreStrategy.FISH);
+		}
+		if (strategies.endsWith("ings")) {
+			list.add(CoreStrategy.WINGS);
+		}
+		StrategyScheduler scheduler = new StrategyScheduler(list);
+		searching = new SolverCore(SolveListener.NONE, scheduler, true);
+		deducing = new SolverCore(SolveListener.NONE, scheduler, false);
+	}
+
+	private Integer[][] nextPuzzle() {
+		Integer[][] puzzle = values.get(next);
+		next = (next + 1) % values.size();
+		return puzzle;
+	}
+
+	@Benchmark
+	public SudokuBoard solve() {
+		return searching.solve(reused, nextPuzzle());
+	}
+
+	@Benchmark
+	public SudokuBoard deduce() {
+		return deducing.solve(reused, nextPuzzle());
+	}
+}
@@ -1,15 +1,182 @@
 package io.johnsanchez.sudokusolver.core;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 /**
- * Hello world!
- *
+ * Solves puzzles of one line each, see {@link PuzzleReader}, from a file or the standard input, and writes their
+ * solutions to the standard output in input order. A puzzle which was not solved is written back as it was given.
+ * The throughput is reported on the standard error once the input ends. A malformed line ends the run, after the
+ * puzzles before it were written.
+ * <p>
+ * Reading, solving and writing overlap: while the workers solve a chunk, the next one is read, and only a few chunks
+ * are held at a time whatever the size of the input.
  */
-public class App 
-{
-	
-    public static void main( String[] args )
-    {
-        System.out.println( "Hello World!" );
-        
-    }
+public class App {
+
+	private static final String USAGE = "Usage: App [-e core|dancing_links] [-t threads] [-m] [file|-]";
+	// puzzles solved at a time, and chunks solving while the next one is read
+	private static final int CHUNK = 1024;
+	private static final int IN_FLIGHT = 4;
+
+	public static void main(String[] args) throws IOException {
+		SolverEngine engine = SolverEngine.CORE;
+		int threads = Runtime.getRuntime().availableProcessors();
+		String file = "-";
+		SolveListener listener = SolveListener.NONE;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-e") || args[i].equals("--engine")) {
+					engine = SolverEngine.valueOf(args[++i].toUpperCase());
+				} else if (args[i].equals("-t") || args[i].equals("--threads")) {
+					threads = Integer.parseInt(args[++i]);
+				} else if (args[i].equals("-m") || args[i].equals("--metrics")) {
+					SolverMetrics metrics = new SolverMetrics();
+					metrics.register("App");
+					listener = metrics;
+				} else if (args[i].startsWith("-") && args[i].length() > 1) {
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				} else {
+					file = args[i];
+				}
+			}
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try (PuzzleReader reader = file.equals("-") ? new PuzzleReader(System.in) : PuzzleReader.open(Paths.get(file));
+				PuzzleWriter writer = new PuzzleWriter(new FileOutputStream(FileDescriptor.out))) {
+			System.err.println(run(reader, writer, new BatchSolver(engine, pool, listener)));
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Solves every puzzle of <code>reader</code> and writes the solutions to <code>writer</code>, in input order.
+	 * 
+	 * @throws IllegalArgumentException for a malformed line, once the solutions of the puzzles before it were written
+	 */
+	static Report run(PuzzleReader reader, PuzzleWriter writer, BatchSolver solver) throws IOException {
+		long start = System.nanoTime();
+		Report report = new Report();
+		Deque<Chunk> chunks = new ArrayDeque<>();
+		List<Integer[][]> puzzles = new ArrayList<>(CHUNK);
+		Integer[][] puzzle;
+		try {
+			while ((puzzle = reader.next()) != null) {
+				puzzles.add(puzzle);
+				if (puzzles.size() == CHUNK) {
+					chunks.add(new Chunk(puzzles, solver.submitValues(puzzles)));
+					puzzles = new ArrayList<>(CHUNK);
+					if (chunks.size() > IN_FLIGHT) {
+						write(chunks.poll(), writer, solver, report);
+					}
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			// the chunks in flight are written all the same, so that the output ends right before the malformed line
+			finish(chunks, puzzles, writer, solver, report);
+			throw e;
+		}
+		finish(chunks, puzzles, writer, solver, report);
+		report.nanos = System.nanoTime() - start;
+		return report;
+	}
+
+	/**
+	 * Writes the chunks in flight and the puzzles not submitted yet.
+	 */
+	private static void finish(Deque<Chunk> chunks, List<Integer[][]> puzzles, PuzzleWriter writer, BatchSolver solver, Report report)
+			throws IOException {
+		if (!puzzles.isEmpty()) {
+			chunks.add(new Chunk(puzzles, solver.submitValues(puzzles)));
+		}
+		while (!chunks.isEmpty()) {
+			write(chunks.poll(), writer, solver, report);
+		}
+		writer.flush();
+	}
+
+	private static void write(Chunk chunk, PuzzleWriter writer, BatchSolver solver, Report report) throws IOException {
+		List<Integer[][]> solutions;
+		try {
+			solutions = chunk.solutions.join();
+		} catch (ContradictionException e) {
+			// one puzzle without a solution fails the whole chunk, so it is solved again one puzzle at a time
+			solutions = new ArrayList<>(chunk.puzzles.size());
+			SudokuSolver single = solver.getEngine().newSolver(solver.getListener());
+			for (Integer[][] puzzle : chunk.puzzles) {
+				try {
+					solutions.add(single.solve(puzzle).getContentValues());
+				} catch (ContradictionException contradiction) {
+					solutions.add(puzzle);
+				}
+			}
+		}
+		for (int i = 0; i < solutions.size(); i++) {
+			report.puzzles++;
+			Integer[][] solution = solutions.get(i);
+			if (!isSolved(solution)) {
+				// as far as the solver got, e.g. before its search found no solution
+				report.unsolved++;
+				solution = chunk.puzzles.get(i);
+			}
+			writer.write(solution);
+		}
+	}
+
+	private static boolean isSolved(Integer[][] values) {
+		for (Integer[] row : values) {
+			for (Integer value : row) {
+				if (value == null) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Puzzles read together, and the task solving them.
+	 */
+	private static class Chunk {
+
+		private final List<Integer[][]> puzzles;
+		private final ForkJoinTask<List<Integer[][]>> solutions;
+
+		Chunk(List<Integer[][]> puzzles, ForkJoinTask<List<Integer[][]>> solutions) {
+			this.puzzles = puzzles;
+			this.solutions = solutions;
+		}
+	}
+
+	/**
+	 * What a run did.
+	 */
+	static class Report {
+
+		int puzzles;
+		int unsolved;
+		long nanos;
+
+		@Override
+		public String toString() {
+			double seconds = nanos / 1e9;
+			return String.format("%d puzzles (%d unsolved) in %.3f s, %.0f puzzles/s", puzzles, unsolved, seconds, puzzles / seconds);
+		}
+	}
 }
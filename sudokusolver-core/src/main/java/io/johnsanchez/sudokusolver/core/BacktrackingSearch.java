@@ -0,0 +1,178 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Depth-first search taking over from {@link SolverCore} once its passes stop making progress.
+ * It guesses the possibilities of the most constrained cell and lets the solver propagate each guess.
+ * A failed guess is undone to a mark on the trail of the board, see {@link SudokuBoard#mark()}, so each branch costs
+ * the changes it made rather than a copy of the whole board.
+ */
+public class BacktrackingSearch {
+
+	private final SolverCore core;
+	// solutions found by every search sharing it, checked before every guess to give up early
+	private final AtomicInteger shared;
+	private final int sharedLimit;
+	private final Budget budget;
+	private long guesses;
+	private long backtracks;
+
+	public BacktrackingSearch(SolverCore core) {
+		this(core, new AtomicInteger(), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * A search which adds the solutions it counts to <code>shared</code>, and gives up as if there were no solution left
+	 * once <code>shared</code> reaches <code>sharedLimit</code>.
+	 */
+	BacktrackingSearch(SolverCore core, AtomicInteger shared, int sharedLimit) {
+		this(core, shared, sharedLimit, Budget.NONE);
+	}
+
+	/**
+	 * A search which gives up once <code>budget</code> runs out, leaving the board as it was before the search.
+	 */
+	BacktrackingSearch(SolverCore core, Budget budget) {
+		this(core, new AtomicInteger(), Integer.MAX_VALUE, budget);
+	}
+
+	/**
+	 * Both of the above.
+	 */
+	BacktrackingSearch(SolverCore core, AtomicInteger shared, int sharedLimit, Budget budget) {
+		this.core = core;
+		this.shared = shared;
+		this.sharedLimit = sharedLimit;
+		this.budget = budget;
+	}
+
+	private boolean isStopped() {
+		return shared.get() >= sharedLimit;
+	}
+
+	/**
+	 * @return true if the board got solved, otherwise the board is left as it was before the search
+	 */
+	public boolean search(SudokuBoard board) {
+		boolean recording = board.getTrail() != null;
+		try {
+			return branch(board);
+		} finally {
+			if (!recording) {
+				// a trail the search started itself, which no mark of the caller needs
+				board.clearTrail();
+			}
+		}
+	}
+
+	private boolean branch(SudokuBoard board) {
+		if (!board.isConsistent()) {
+			return false;
+		}
+		SudokuCell cell = board.mostConstrained();
+		if (cell == null) {
+			return true;
+		}
+
+		int mark = board.mark();
+		for (long rest = cell.getPossibilityMask(); rest != 0 && !isStopped(); rest = Candidates.withoutLowest(rest)) {
+			guesses++;
+			try {
+				guess(board, cell, Candidates.lowest(rest));
+				if (branch(board)) {
+					return true;
+				}
+			} catch (ContradictionException e) {
+				// wrong guess, try the next possibility
+			} catch (Budget.Exhausted e) {
+				board.undo(mark);
+				throw e;
+			}
+			backtracks++;
+			board.undo(mark);
+		}
+		return false;
+	}
+
+	/**
+	 * Goes through every branch instead of stopping at the first solution, and stops once <code>limit</code> solutions were found.
+	 * The board is left as it was before the search.
+	 * 
+	 * @return the number of solutions, at most <code>limit</code>
+	 */
+	public int count(SudokuBoard board, int limit) {
+		boolean recording = board.getTrail() != null;
+		try {
+			return countBranches(board, limit);
+		} finally {
+			if (!recording) {
+				board.clearTrail();
+			}
+		}
+	}
+
+	private int countBranches(SudokuBoard board, int limit) {
+		if (limit <= 0 || !board.isConsistent()) {
+			return 0;
+		}
+		SudokuCell cell = board.mostConstrained();
+		if (cell == null) {
+			shared.incrementAndGet();
+			return 1;
+		}
+
+		int mark = board.mark();
+		int found = 0;
+		for (long rest = cell.getPossibilityMask(); rest != 0 && found < limit && !isStopped(); rest = Candidates.withoutLowest(rest)) {
+			guesses++;
+			try {
+				guess(board, cell, Candidates.lowest(rest));
+				found += countBranches(board, limit - found);
+			} catch (ContradictionException e) {
+				// no solution down this branch
+			} catch (Budget.Exhausted e) {
+				board.undo(mark);
+				throw e;
+			}
+			backtracks++;
+			board.undo(mark);
+		}
+		return found;
+	}
+
+	/**
+	 * Sets <code>value</code> in <code>cell</code> and propagates it.
+	 * 
+	 * @throws ContradictionException if the guess was wrong
+	 */
+	private void guess(SudokuBoard board, SudokuCell cell, int value) {
+		SolverEvents.SearchBranch event = new SolverEvents.SearchBranch();
+		event.begin();
+		int solved = board.countSolved();
+		int passes = 0;
+		boolean contradiction = true;
+		try {
+			budget.check();
+			cell.setValue(value);
+			passes = core.propagate(board, SolveListener.NONE, budget);
+			contradiction = false;
+		} finally {
+			if (event.shouldCommit()) {
+				event.row = cell.getRow();
+				event.col = cell.getCol();
+				event.value = value;
+				event.contradiction = contradiction;
+				event.commit(board, solved, passes);
+			}
+		}
+	}
+
+	public long getGuesses() {
+		return guesses;
+	}
+
+	public long getBacktracks() {
+		return backtracks;
+	}
+}
@@ -0,0 +1,105 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Solves many puzzles in parallel on a {@link ForkJoinPool}, returning the results in input order.
+ * Every puzzle gets its own solver and board, nothing is shared between the workers.
+ */
+public class BatchSolver {
+
+	private static final int CHUNKS_PER_THREAD = 256;
+
+	private final SolverEngine engine;
+	private final SolveListener listener;
+	private final ForkJoinPool pool;
+	private final BoardPool boards = new BoardPool();
+	private final ThreadLocal<SudokuSolver> solvers;
+
+	public BatchSolver(SolverEngine engine) {
+		this(engine, ForkJoinPool.commonPool());
+	}
+
+	public BatchSolver(SolverEngine engine, ForkJoinPool pool) {
+		this(engine, pool, SolveListener.NONE);
+	}
+
+	/**
+	 * @param listener shared by the solvers of every worker, e.g. {@link SolverMetrics}
+	 */
+	public BatchSolver(SolverEngine engine, ForkJoinPool pool, SolveListener listener) {
+		this.engine = engine;
+		this.listener = listener;
+		this.pool = pool;
+		this.solvers = ThreadLocal.withInitial(() -> engine.newSolver(listener));
+	}
+
+	public List<SudokuBoard> solve(List<Integer[][]> puzzles) {
+		return pool.submit(() -> puzzles.parallelStream()
+				.map(values -> engine.newSolver(listener).solve(values))
+				.collect(Collectors.toList())).join();
+	}
+
+	/**
+	 * Solves a stream of any length, chunk by chunk so that only one chunk of puzzles and boards is held at a time.
+	 * 
+	 * @param results receives the boards in input order, from the calling thread
+	 */
+	public void solve(Stream<Integer[][]> puzzles, Consumer<SudokuBoard> results) {
+		inChunks(puzzles, this::solve, results);
+	}
+
+	/**
+	 * Like {@link #solve(List)}, but every worker solves on one reused board and only the values are kept.
+	 * 
+	 * @return the values of every solved board, in input order
+	 */
+	public List<Integer[][]> solveValues(List<Integer[][]> puzzles) {
+		return submitValues(puzzles).join();
+	}
+
+	/**
+	 * Starts {@link #solveValues(List)} without waiting for it, e.g. to read the next puzzles meanwhile.
+	 */
+	public ForkJoinTask<List<Integer[][]>> submitValues(List<Integer[][]> puzzles) {
+		return pool.submit(() -> puzzles.parallelStream()
+				.map(values -> solvers.get().solve(boards.get(values), values).getContentValues())
+				.collect(Collectors.toList()));
+	}
+
+	/**
+	 * Like {@link #solve(Stream, Consumer)}, with the reused boards of {@link #solveValues(List)}.
+	 */
+	public void solveValues(Stream<Integer[][]> puzzles, Consumer<Integer[][]> results) {
+		inChunks(puzzles, this::solveValues, results);
+	}
+
+	private <T> void inChunks(Stream<Integer[][]> puzzles, Function<List<Integer[][]>, List<T>> solver, Consumer<T> results) {
+		int chunkSize = pool.getParallelism() * CHUNKS_PER_THREAD;
+		Iterator<Integer[][]> iterator = puzzles.iterator();
+		List<Integer[][]> chunk = new ArrayList<>(chunkSize);
+		while (iterator.hasNext()) {
+			chunk.add(iterator.next());
+			if (chunk.size() == chunkSize || !iterator.hasNext()) {
+				solver.apply(chunk).forEach(results);
+				chunk.clear();
+			}
+		}
+	}
+
+	public SolveListener getListener() {
+		return listener;
+	}
+
+	public SolverEngine getEngine() {
+		return engine;
+	}
+}
@@ -0,0 +1,36 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * Hands every thread one board of its own to solve puzzle after puzzle, see {@link SudokuSolver#solve(SudokuBoard, Integer[][])}.
+ * The board is reused by the next solve on the same thread, so read the result before solving again.
+ */
+public class BoardPool {
+
+	// one board per box size, created on first use
+	private final ThreadLocal<SudokuBoard[]> boards = ThreadLocal.withInitial(() -> new SudokuBoard[SudokuBoard.MAX_BOX_SIZE + 1]);
+
+	/**
+	 * @return the 9x9 board of the calling thread
+	 */
+	public SudokuBoard get() {
+		return get(3);
+	}
+
+	/**
+	 * @return the board of the calling thread with boxes of <code>boxSize</code>, see {@link SudokuBoard#SudokuBoard(int)}
+	 */
+	public SudokuBoard get(int boxSize) {
+		SudokuBoard[] byBoxSize = boards.get();
+		if (byBoxSize[boxSize] == null) {
+			byBoxSize[boxSize] = new SudokuBoard(boxSize);
+		}
+		return byBoxSize[boxSize];
+	}
+
+	/**
+	 * @return the board of the calling thread fitting <code>values</code>
+	 */
+	public SudokuBoard get(Integer[][] values) {
+		return get(SudokuBoard.boxSizeOf(values.length));
+	}
+}
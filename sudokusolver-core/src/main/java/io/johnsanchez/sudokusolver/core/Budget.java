@@ -0,0 +1,102 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What is left of the {@link SolveLimits} of one solve, counted down by the passes and checked by the search.
+ * Every solve gets its own, except {@link #NONE} which never runs out and counts nothing.
+ */
+class Budget {
+
+	static final Budget NONE = new Budget(null);
+
+	private final SolveLimits limits;
+	private long steps;
+
+	Budget(SolveLimits limits) {
+		this.limits = limits;
+	}
+
+	/**
+	 * Counts a pass of the solver, and checks the limits.
+	 * 
+	 * @throws Exhausted if one of the limits was reached
+	 */
+	void step() {
+		if (limits == null) {
+			return;
+		}
+		if (++steps > limits.getMaxSteps()) {
+			throw new Exhausted(SolveResult.Status.TIMED_OUT);
+		}
+		check();
+	}
+
+	/**
+	 * Checks the limits without counting a step.
+	 * 
+	 * @throws Exhausted if one of the limits was reached
+	 */
+	void check() {
+		if (limits == null) {
+			return;
+		}
+		if (limits.hasDeadline() && System.nanoTime() - limits.getDeadline() >= 0) {
+			throw new Exhausted(SolveResult.Status.TIMED_OUT);
+		}
+		CancellationToken token = limits.getToken();
+		if ((token != null && token.isCancelled()) || Thread.currentThread().isInterrupted()) {
+			throw new Exhausted(SolveResult.Status.CANCELLED);
+		}
+	}
+
+	long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * A budget which the threads of one solve count down together, see {@link ParallelSearch}.
+	 */
+	static class Shared extends Budget {
+
+		private final SolveLimits limits;
+		private final AtomicLong steps = new AtomicLong();
+
+		Shared(SolveLimits limits) {
+			super(limits);
+			this.limits = limits;
+		}
+
+		@Override
+		void step() {
+			if (steps.incrementAndGet() > limits.getMaxSteps()) {
+				throw new Exhausted(SolveResult.Status.TIMED_OUT);
+			}
+			check();
+		}
+
+		@Override
+		long getSteps() {
+			return steps.get();
+		}
+	}
+
+	/**
+	 * Unwinds the solve once the budget ran out, without a stack trace since it is not an error.
+	 */
+	static class Exhausted extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		private final SolveResult.Status status;
+
+		Exhausted(SolveResult.Status status) {
+			super(status.toString(), null, false, false);
+			this.status = status;
+		}
+
+		SolveResult.Status getStatus() {
+			return status;
+		}
+	}
+}
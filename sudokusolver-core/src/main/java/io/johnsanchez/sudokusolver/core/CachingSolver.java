@@ -0,0 +1,131 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers a puzzle equivalent to one solved before from a bounded cache of solutions, see {@link Canonicalizer}, and
+ * hands the others to another solver. The cache holds the solutions of the canonical puzzles, so a relabelled,
+ * transposed or shuffled puzzle is a hit as well, and evicts the least recently used solution once it is full.
+ * <p>
+ * Can be shared between threads if the solver it wraps can, e.g. {@link SolverCore}.
+ */
+public class CachingSolver implements SudokuSolver {
+
+	private final SudokuSolver solver;
+	private final int capacity;
+	private final Canonicalizer canonicalizer = new Canonicalizer();
+	// by canonical key, in access order
+	private final Map<String, Integer[][]> solutions;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * @param capacity the number of solutions kept
+	 */
+	public CachingSolver(SudokuSolver solver, int capacity) {
+		this.solver = solver;
+		this.capacity = capacity;
+		this.solutions = new LinkedHashMap<String, Integer[][]>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Integer[][]> eldest) {
+				if (size() > CachingSolver.this.capacity) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	@Override
+	public SudokuBoard solve(Integer[][] values) {
+		return solve(new SudokuBoard(SudokuBoard.boxSizeOf(values.length)), values);
+	}
+
+	/**
+	 * Only solved boards are cached, a puzzle without a solution goes to the solver every time.
+	 */
+	@Override
+	public SudokuBoard solve(SudokuBoard board, Integer[][] values) {
+		Canonicalizer.Form form = canonicalizer.canonicalize(values);
+		Integer[][] solution;
+		synchronized (solutions) {
+			solution = solutions.get(form.getKey());
+		}
+		if (solution != null) {
+			hits.incrementAndGet();
+			board.loadSolved(values, form.fromCanonical(solution));
+			return board;
+		}
+
+		misses.incrementAndGet();
+		solver.solve(board, values);
+		if (board.countSolved() == board.getCellCount()) {
+			solution = form.toCanonical(board.getContentValues());
+			synchronized (solutions) {
+				solutions.put(form.getKey(), solution);
+			}
+		}
+		return board;
+	}
+
+	/**
+	 * Only solved results are cached, a solve which gave up or found no solution goes to the solver every time.
+	 */
+	@Override
+	public SolveResult solve(SudokuBoard board, SolveLimits limits) {
+		long start = System.nanoTime();
+		Integer[][] values = board.getContentValues();
+		Canonicalizer.Form form = canonicalizer.canonicalize(values);
+		Integer[][] solution;
+		synchronized (solutions) {
+			solution = solutions.get(form.getKey());
+		}
+		if (solution != null) {
+			hits.incrementAndGet();
+			board.loadSolved(values, form.fromCanonical(solution));
+			return new SolveResult(SolveResult.Status.SOLVED, board, 0, System.nanoTime() - start);
+		}
+
+		misses.incrementAndGet();
+		SolveResult result = solver.solve(board, limits);
+		if (result.isSolved()) {
+			solution = form.toCanonical(board.getContentValues());
+			synchronized (solutions) {
+				solutions.put(form.getKey(), solution);
+			}
+		}
+		return result;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * @return the number of solutions in the cache
+	 */
+	public int size() {
+		synchronized (solutions) {
+			return solutions.size();
+		}
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+}
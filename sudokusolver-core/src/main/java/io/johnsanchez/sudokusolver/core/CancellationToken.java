@@ -0,0 +1,18 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * Lets another thread stop the solves given it in their {@link SolveLimits}, see {@link SolveResult.Status#CANCELLED}.
+ * One token may be shared by any number of solves, e.g. every puzzle of a batch.
+ */
+public class CancellationToken {
+
+	private volatile boolean cancelled;
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+}
@@ -0,0 +1,70 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Helpers for the primitive candidate masks used by {@link SudokuCell} and {@link SudokuCellGroup}.
+ * The value <code>v</code> is stored in bit <code>v - 1</code> of a <code>long</code>, so boards of up to 64 digits
+ * fit, and the digits 1..9 of a classic board take the lower 9 bits.
+ */
+public final class Candidates {
+
+	public static final long NONE = 0L;
+	/**
+	 * Every digit of a 9x9 board.
+	 */
+	public static final long ALL = all(9);
+
+	private Candidates() {
+	}
+
+	/**
+	 * @return the mask of the digits 1..<code>size</code>
+	 */
+	public static long all(int size) {
+		return size == Long.SIZE ? -1L : (1L << size) - 1;
+	}
+
+	public static long bit(int value) {
+		return 1L << (value - 1);
+	}
+
+	public static boolean contains(long mask, int value) {
+		return (mask & bit(value)) != 0;
+	}
+
+	public static int count(long mask) {
+		return Long.bitCount(mask);
+	}
+
+	/**
+	 * @return the smallest value in the mask, or 0 if the mask is empty
+	 */
+	public static int lowest(long mask) {
+		return mask == 0 ? 0 : Long.numberOfTrailingZeros(mask) + 1;
+	}
+
+	/**
+	 * @return the mask without its smallest value
+	 */
+	public static long withoutLowest(long mask) {
+		return mask & (mask - 1);
+	}
+
+	public static Set<Integer> toSet(long mask) {
+		Set<Integer> set = new HashSet<>();
+		for (long rest = mask; rest != 0; rest = withoutLowest(rest)) {
+			set.add(lowest(rest));
+		}
+		return set;
+	}
+
+	public static long of(Integer... values) {
+		long mask = NONE;
+		for (Integer value : values) {
+			mask |= bit(value);
+		}
+		return mask;
+	}
+}
@@ -0,0 +1,391 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps a puzzle to a canonical form shared by every puzzle equivalent to it under the symmetries of Sudoku: relabelled
+ * digits, transposition, permuted bands and stacks, and permuted rows and columns within them.
+ * <p>
+ * The form is the smallest of those puzzles read row by row, blanks first and the digits relabelled in order of
+ * appearance. It is searched one row at a time. Columns and stacks which read the same so far stay interchangeable
+ * until a row tells them apart, and only the orders which label new digits differently are searched separately.
+ * Puzzles with very many ties only keep the first {@value #MAX_TIES} of them, so an equivalent puzzle may get another
+ * form. A form always maps back to its own puzzle though.
+ */
+public class Canonicalizer {
+
+	private static final int MAX_TIES = 4096;
+	// sorts a digit without a label after the labelled ones, it takes the next label where it is read
+	private static final int NEW = Integer.MAX_VALUE;
+
+	public Form canonicalize(Integer[][] values) {
+		int size = values.length;
+		int boxSize = SudokuBoard.boxSizeOf(size);
+		// the puzzle and its transposition, 0 for a blank
+		int[][] grids = new int[2][size * size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				int value = values[i][j] == null ? 0 : values[i][j];
+				grids[0][i * size + j] = value;
+				grids[1][j * size + i] = value;
+			}
+		}
+
+		List<State> states = new ArrayList<>();
+		states.add(new State(0, boxSize));
+		states.add(new State(1, boxSize));
+		Reading reading = new Reading(boxSize);
+		int[] best = new int[size];
+		for (int i = 0; i < size; i++) {
+			List<State> ties = new ArrayList<>();
+			for (State state : states) {
+				for (int r = 0; r < size; r++) {
+					if (!state.canFollow(r, i, boxSize)) {
+						continue;
+					}
+					reading.arrange(state, grids[state.transpose], r);
+					int order = ties.isEmpty() ? -1 : compare(reading.row, best);
+					if (order < 0) {
+						ties.clear();
+						System.arraycopy(reading.row, 0, best, 0, size);
+					}
+					if (order <= 0) {
+						reading.branch(state, i, r, 0, 0, ties);
+					}
+				}
+			}
+			states = ties;
+		}
+		return new Form(size, states.get(0), values);
+	}
+
+	private static int compare(int[] row, int[] other) {
+		for (int j = 0; j < row.length; j++) {
+			if (row[j] != other[j]) {
+				return row[j] < other[j] ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * The rows picked so far, and the order of the columns and the labels they gave.
+	 */
+	private static class State {
+
+		private final int transpose;
+		private final int[] rows;
+		private final long used;
+		private final int[] cols;
+		// bit j: the columns at j and j + 1 are still interchangeable, bit s: the stacks at s and s + 1 are
+		private final long colTies;
+		private final long stackTies;
+		private final int[] labels;
+		private final int next;
+
+		/**
+		 * Nothing picked yet, every stack and every column within a stack interchangeable.
+		 */
+		State(int transpose, int boxSize) {
+			int size = boxSize * boxSize;
+			this.transpose = transpose;
+			this.rows = new int[size];
+			this.used = 0L;
+			this.cols = new int[size];
+			long colTies = 0L;
+			for (int j = 0; j < size; j++) {
+				cols[j] = j;
+				if (j % boxSize != boxSize - 1) {
+					colTies |= 1L << j;
+				}
+			}
+			this.colTies = colTies;
+			this.stackTies = Candidates.all(boxSize - 1);
+			this.labels = new int[size + 1];
+			this.next = 1;
+		}
+
+		State(State state, int i, int r, int[] cols, long colTies, long stackTies, int[] labels, int next) {
+			this.transpose = state.transpose;
+			this.rows = state.rows.clone();
+			rows[i] = r;
+			this.used = state.used | 1L << r;
+			this.cols = cols;
+			this.colTies = colTies;
+			this.stackTies = stackTies;
+			this.labels = labels;
+			this.next = next;
+		}
+
+		/**
+		 * @return whether row <code>r</code> may be the <code>i</code>th: from a new band at the start of one,
+		 * otherwise from the band of the row before
+		 */
+		boolean canFollow(int r, int i, int boxSize) {
+			if ((used & 1L << r) != 0) {
+				return false;
+			}
+			if (i % boxSize == 0) {
+				return (used >>> (r / boxSize * boxSize) & Candidates.all(boxSize)) == 0;
+			}
+			return r / boxSize == rows[i - 1] / boxSize;
+		}
+	}
+
+	/**
+	 * Reads one more row after a {@link State}, reusing its arrays from row to row.
+	 */
+	private static class Reading {
+
+		private final int boxSize;
+		private final int size;
+		// the digits of the row, and how they sort by column
+		private int[] digits;
+		private final int[] keys;
+		// the smallest order of the columns for the row, and the ties left after it
+		private final int[] cols;
+		private long colTies;
+		private long stackTies;
+		// runs of stacks, or of columns within a stack, which read the same in any order but label new digits
+		// differently: start, length and 1 for stacks
+		private final List<int[]> groups = new ArrayList<>();
+		// the row as it reads in that order
+		private final int[] row;
+
+		Reading(int boxSize) {
+			this.boxSize = boxSize;
+			this.size = boxSize * boxSize;
+			this.keys = new int[size];
+			this.cols = new int[size];
+			this.row = new int[size];
+		}
+
+		/**
+		 * Orders the columns of the state to read row <code>r</code> smallest: tied stacks by their sorted columns,
+		 * and tied columns blanks first, then by label, then the new digits.
+		 */
+		void arrange(State state, int[] grid, int r) {
+			this.digits = grid;
+			for (int c = 0; c < size; c++) {
+				int value = grid[r * size + c];
+				keys[c] = value == 0 ? 0 : state.labels[value] != 0 ? state.labels[value] : NEW;
+			}
+			System.arraycopy(state.cols, 0, cols, 0, size);
+			colTies = state.colTies;
+			stackTies = 0L;
+			groups.clear();
+
+			// tied stacks have been blank so far, so their columns are all tied as well
+			for (int s = 0; s < boxSize; s++) {
+				int end = s;
+				while ((state.stackTies & 1L << end) != 0) {
+					end++;
+				}
+				for (int t = s; t <= end && end > s; t++) {
+					sort(t * boxSize, (t + 1) * boxSize);
+				}
+				for (int t = s + 1; t <= end; t++) {
+					for (int u = t; u > s && compareStacks(u - 1, u) > 0; u--) {
+						swapStacks(u - 1, u);
+					}
+				}
+				for (int t = s; t < end; t++) {
+					int run = t;
+					while (run < end && compareStacks(run, run + 1) == 0) {
+						run++;
+					}
+					if (run > t && keys[cols[t * boxSize + boxSize - 1]] == 0) {
+						stackTies |= (1L << run) - (1L << t);
+					} else if (run > t) {
+						groups.add(new int[] { t, run - t + 1, 1 });
+					}
+					t = run;
+				}
+				s = end;
+			}
+
+			for (int j = 0; j < size; j++) {
+				int end = j;
+				while ((colTies & 1L << end) != 0) {
+					end++;
+				}
+				sort(j, end + 1);
+				int news = 0;
+				for (int k = j; k <= end; k++) {
+					if (k < end && (keys[cols[k]] != 0 || keys[cols[k + 1]] != 0)) {
+						colTies &= ~(1L << k);
+					}
+					news += keys[cols[k]] == NEW ? 1 : 0;
+				}
+				if (news > 1) {
+					groups.add(new int[] { end + 1 - news, news, 0 });
+				}
+				j = end;
+			}
+
+			int next = state.next;
+			for (int j = 0; j < size; j++) {
+				row[j] = keys[cols[j]] == NEW ? next++ : keys[cols[j]];
+			}
+		}
+
+		/**
+		 * Adds to <code>ties</code> a state for every order of the groups from <code>g</code> on, from the
+		 * <code>k</code>th element of group <code>g</code> on.
+		 */
+		void branch(State state, int i, int r, int g, int k, List<State> ties) {
+			if (ties.size() >= MAX_TIES) {
+				return;
+			}
+			if (g == groups.size()) {
+				int[] labels = state.labels.clone();
+				int next = state.next;
+				for (int j = 0; j < size; j++) {
+					int value = digits[r * size + cols[j]];
+					if (value != 0 && labels[value] == 0) {
+						labels[value] = next++;
+					}
+				}
+				ties.add(new State(state, i, r, cols.clone(), colTies, stackTies, labels, next));
+				return;
+			}
+			int[] group = groups.get(g);
+			if (k == group[1]) {
+				branch(state, i, r, g + 1, 0, ties);
+				return;
+			}
+			for (int x = k; x < group[1]; x++) {
+				swap(group, k, x);
+				branch(state, i, r, g, k + 1, ties);
+				swap(group, k, x);
+			}
+		}
+
+		private void swap(int[] group, int a, int b) {
+			if (group[2] == 1) {
+				swapStacks(group[0] + a, group[0] + b);
+			} else {
+				int c = cols[group[0] + a];
+				cols[group[0] + a] = cols[group[0] + b];
+				cols[group[0] + b] = c;
+			}
+		}
+
+		/**
+		 * Sorts the columns from <code>start</code> to <code>end</code> by their keys.
+		 */
+		private void sort(int start, int end) {
+			for (int j = start + 1; j < end; j++) {
+				for (int k = j; k > start && keys[cols[k - 1]] > keys[cols[k]]; k--) {
+					int c = cols[k];
+					cols[k] = cols[k - 1];
+					cols[k - 1] = c;
+				}
+			}
+		}
+
+		private int compareStacks(int s, int t) {
+			for (int k = 0; k < boxSize; k++) {
+				int a = keys[cols[s * boxSize + k]];
+				int b = keys[cols[t * boxSize + k]];
+				if (a != b) {
+					return a < b ? -1 : 1;
+				}
+			}
+			return 0;
+		}
+
+		private void swapStacks(int s, int t) {
+			for (int k = 0; k < boxSize; k++) {
+				int c = cols[s * boxSize + k];
+				cols[s * boxSize + k] = cols[t * boxSize + k];
+				cols[t * boxSize + k] = c;
+			}
+		}
+	}
+
+	/**
+	 * The canonical form of a puzzle, and the symmetry taking the puzzle to it.
+	 */
+	public static class Form {
+
+		private final int size;
+		private final boolean transpose;
+		private final int[] rows;
+		private final int[] cols;
+		// the canonical label of each digit, and the digit of each label
+		private final int[] labels;
+		private final int[] digits;
+		private final String key;
+
+		Form(int size, State state, Integer[][] values) {
+			this.size = size;
+			this.transpose = state.transpose == 1;
+			this.rows = state.rows;
+			this.cols = state.cols;
+			this.labels = state.labels.clone();
+			// digits missing from the puzzle are interchangeable, they take the labels left in their own order
+			int next = state.next;
+			for (int digit = 1; digit <= size; digit++) {
+				if (labels[digit] == 0) {
+					labels[digit] = next++;
+				}
+			}
+			this.digits = new int[size + 1];
+			for (int digit = 1; digit <= size; digit++) {
+				digits[labels[digit]] = digit;
+			}
+
+			StringBuilder key = new StringBuilder(size * size);
+			Integer[][] canonical = toCanonical(values);
+			for (Integer[] row : canonical) {
+				for (Integer value : row) {
+					key.append((char) ('0' + (value == null ? 0 : value)));
+				}
+			}
+			this.key = key.toString();
+		}
+
+		/**
+		 * @return the canonical puzzle as a string, equal for equivalent puzzles
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * @param grid the puzzle, or a grid of the same shape such as its solution
+		 * @return the grid moved by the symmetry taking the puzzle to its canonical form
+		 */
+		public Integer[][] toCanonical(Integer[][] grid) {
+			Integer[][] moved = new Integer[size][size];
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					Integer value = transpose ? grid[cols[j]][rows[i]] : grid[rows[i]][cols[j]];
+					moved[i][j] = value == null ? null : labels[value];
+				}
+			}
+			return moved;
+		}
+
+		/**
+		 * The inverse of {@link #toCanonical(Integer[][])}, e.g. to read the solution of the canonical puzzle as a
+		 * solution of the puzzle.
+		 */
+		public Integer[][] fromCanonical(Integer[][] grid) {
+			Integer[][] moved = new Integer[size][size];
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					Integer value = grid[i][j] == null ? null : digits[grid[i][j]];
+					if (transpose) {
+						moved[cols[j]][rows[i]] = value;
+					} else {
+						moved[rows[i]][cols[j]] = value;
+					}
+				}
+			}
+			return moved;
+		}
+	}
+}
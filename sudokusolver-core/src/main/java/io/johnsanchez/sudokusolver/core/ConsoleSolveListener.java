@@ -0,0 +1,69 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.PrintStream;
+
+/**
+ * Prints the board to a stream after every step that made progress, e.g. to {@link System#err} so that it does not mix
+ * with the solutions on {@link System#out}.
+ */
+public class ConsoleSolveListener implements SolveListener {
+
+	private final PrintStream out;
+	private final boolean colored;
+
+	/**
+	 * @param colored true for the flags and the solved cells in ANSI colors, see {@link SudokuBoard#logFlags(PrintStream)},
+	 *                false for the values alone, e.g. for a file
+	 */
+	public ConsoleSolveListener(PrintStream out, boolean colored) {
+		this.out = out;
+		this.colored = colored;
+	}
+
+	private void log(SudokuBoard board) {
+		if (colored) {
+			board.logFlags(out);
+		} else {
+			board.log(out);
+		}
+	}
+
+	@Override
+	public void started(SudokuBoard board) {
+		log(board);
+	}
+
+	@Override
+	public void progressed(SudokuBoard board, String step, int value) {
+		out.println("After " + step + (value > 0 ? " " + value : ""));
+		log(board);
+	}
+
+	@Override
+	public void placed(SudokuCell cell, int value) {
+		out.println("Setting " + value + " (" + cell.getRow() + ", " + cell.getCol() + ")");
+	}
+
+	@Override
+	public void passFinished(SudokuBoard board) {
+		out.println("Looping");
+	}
+
+	@Override
+	public void searchFinished(SudokuBoard board, BacktrackingSearch search, boolean found, long nanos) {
+		out.println((found ? "After search" : "No solution") + " (" + search.getGuesses() + " guesses, "
+				+ search.getBacktracks() + " backtracks, " + nanos / 1000 + " us)");
+	}
+
+	@Override
+	public void finished(SudokuBoard board) {
+		out.println("After all");
+		log(board);
+	}
+
+	@Override
+	public void failed(SudokuBoard board, RuntimeException e) {
+		out.println("ERROR " + e.getMessage());
+		log(board);
+	}
+}
@@ -0,0 +1,13 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * Thrown when a value cannot be placed on the board because a group already has it or the cell has ruled it out.
+ */
+public class ContradictionException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ContradictionException(String message) {
+		super(message);
+	}
+}
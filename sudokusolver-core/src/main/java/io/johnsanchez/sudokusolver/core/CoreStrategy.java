@@ -0,0 +1,184 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.johnsanchez.sudokusolver.core.SudokuCellGroup.LineMode;
+
+/**
+ * The techniques of {@link SolverCore} as {@link SolvingStrategy strategies}, cheapest first.
+ */
+public enum CoreStrategy implements SolvingStrategy {
+
+	/**
+	 * The last value missing from a group, see {@link SolverCore#solveMissing(SudokuBoard)}.
+	 */
+	MISSING {
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			int solved = board.countSolved();
+			long eliminated = board.countEliminated();
+			SolverCore.solveMissing(board, units);
+			SolverCore.applied(board, listener, Technique.MISSING, solved, eliminated);
+			SolverCore.notifyIfMore(board, listener, solved, "missing", 0);
+		}
+	},
+
+	/**
+	 * A cell with a single possibility left, see {@link SolverCore#solveBrutefully(SudokuBoard)}.
+	 */
+	BRUTE {
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			int solved = board.countSolved();
+			long eliminated = board.countEliminated();
+			SolverCore.solveBrutefully(board, units);
+			SolverCore.applied(board, listener, Technique.BRUTE, solved, eliminated);
+			SolverCore.notifyIfMore(board, listener, solved, "brute", 0);
+		}
+	},
+
+	/**
+	 * A value with a single place left in a row or a column, for every value at once, see
+	 * {@link SolverCore#solveBrutefully(SudokuCellGroup[])}. {@link #SINGLES} finds these too, along with those
+	 * of the groups.
+	 */
+	LINES {
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			int solved = board.countSolved();
+			long eliminated = board.countEliminated();
+			SolverCore.solveBrutefully(board.getUnits(LineMode.ROW), units, listener);
+			SolverCore.solveBrutefully(board.getUnits(LineMode.COLUMN), units, listener);
+			SolverCore.applied(board, listener, Technique.SINGLE, solved, eliminated);
+			SolverCore.notifyIfMore(board, listener, solved, "lines", 0);
+		}
+	},
+
+	/**
+	 * A value with a single place left in a group, value by value, see {@link SolverCore#solveNext(SudokuBoard, int)}.
+	 */
+	SINGLES {
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			next(board, units, false, listener);
+		}
+	},
+
+	/**
+	 * Like {@link #SINGLES}, pairing a value with two places left in a group and clearing a value with two or three
+	 * places left in a group from a line they share.
+	 */
+	PAIRS {
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			next(board, units, true, listener);
+		}
+	},
+
+	/**
+	 * Two cells of a line with the same two possibilities, see {@link SolverCore#reducePossibility(SudokuBoard)}.
+	 */
+	NAKED_PAIRS {
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			int solved = board.countSolved();
+			long eliminated = board.countEliminated();
+			SolverEvents.ReducePossibility event = new SolverEvents.ReducePossibility();
+			event.begin();
+			SolverCore.reducePossibility(board, units);
+			if (event.shouldCommit()) {
+				event.commit(board, solved, 0);
+			}
+			SolverCore.applied(board, listener, Technique.NAKED_PAIR, solved, eliminated);
+		}
+	},
+
+	/**
+	 * Naked and hidden subsets of two to four cells in rows, columns and boxes, of which {@link #NAKED_PAIRS} are the
+	 * naked pairs of the lines.
+	 */
+	SUBSETS {
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			int solved = board.countSolved();
+			SolverEvents.ReducePossibility event = new SolverEvents.ReducePossibility();
+			event.begin();
+			SolverCore.reduceSubsets(board, units, listener);
+			if (event.shouldCommit()) {
+				event.commit(board, solved, 0);
+			}
+		}
+	},
+
+	/**
+	 * X-Wings, Swordfish and Jellyfish of every value, on the position masks of the board, see {@link Fish}.
+	 */
+	FISH {
+		private final Technique[] techniques = { Technique.X_WING, Technique.SWORDFISH, Technique.JELLYFISH };
+
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			int solved = board.countSolved();
+			long eliminated = board.countEliminated();
+			for (int size = 2; size <= Fish.MAX_SIZE; size++) {
+				Fish.eliminate(board, size, units);
+				eliminated = SolverCore.applied(board, listener, techniques[size - 2], solved, eliminated);
+			}
+		}
+	},
+
+	/**
+	 * XY-Wings and XYZ-Wings, see {@link Wings}.
+	 */
+	WINGS {
+		@Override
+		public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+			int solved = board.countSolved();
+			long eliminated = board.countEliminated();
+			Wings.eliminate(board, false, units);
+			eliminated = SolverCore.applied(board, listener, Technique.XY_WING, solved, eliminated);
+			Wings.eliminate(board, true, units);
+			SolverCore.applied(board, listener, Technique.XYZ_WING, solved, eliminated);
+		}
+	};
+
+	@Override
+	public String getName() {
+		return name();
+	}
+
+	private static void next(SudokuBoard board, long[] units, boolean pairs, SolveListener listener) {
+		int solved = board.countSolved();
+		for (int value = 1; value <= board.getSize(); value++) {
+			SolverEvents.SolveNext event = new SolverEvents.SolveNext();
+			event.begin();
+			SolverCore.solveNext(board, value, units, pairs, listener);
+			if (event.shouldCommit()) {
+				event.value = value;
+				event.commit(board, solved, 0);
+			}
+			solved = SolverCore.notifyIfMore(board, listener, solved, "next", value);
+		}
+	}
+
+	/**
+	 * @return the strategies of the techniques of <code>techniques</code>, see {@link Difficulty}, cheapest first.
+	 * {@link Difficulty#EXPERT} leaves out the {@link #FISH} and the {@link #WINGS}: they would run at every guess of the
+	 * search, which settles what they find for less.
+	 */
+	public static List<SolvingStrategy> of(Difficulty techniques) {
+		List<SolvingStrategy> strategies = new ArrayList<>();
+		strategies.add(MISSING);
+		strategies.add(BRUTE);
+		strategies.add(techniques.includes(Difficulty.MEDIUM) ? PAIRS : SINGLES);
+		if (techniques.includes(Difficulty.HARD)) {
+			strategies.add(SUBSETS);
+		}
+		if (techniques == Difficulty.HARD) {
+			strategies.add(FISH);
+			strategies.add(WINGS);
+		}
+		return strategies;
+	}
+}
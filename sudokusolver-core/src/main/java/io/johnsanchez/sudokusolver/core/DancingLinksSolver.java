@@ -0,0 +1,222 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * Solves a puzzle as an exact cover problem with Knuth's Dancing Links (Algorithm X).
+ * Each of the size³ candidates (row, column, value) covers four of the 4·size² constraints:
+ * the cell is filled, and the value is in the row, in the column and in the group.
+ * On a 9x9 board that is 729 candidates and 324 constraints.
+ * The matrix lives in flat arrays which are allocated per call, so one instance can be shared.
+ */
+public class DancingLinksSolver implements SudokuSolver {
+
+	@Override
+	public SudokuBoard solve(Integer[][] values) {
+		return solve(new SudokuBoard(SudokuBoard.boxSizeOf(values.length)), values);
+	}
+
+	@Override
+	public SudokuBoard solve(SudokuBoard board, Integer[][] values) {
+		board.load(values);
+		solve(board, values, Budget.NONE);
+		return board;
+	}
+
+	/**
+	 * Every node of the search counts as a step of the <code>limits</code>. A search given up leaves the board with its
+	 * givens.
+	 */
+	@Override
+	public SolveResult solve(SudokuBoard board, SolveLimits limits) {
+		long start = System.nanoTime();
+		Budget budget = new Budget(limits);
+		SolveResult.Status status;
+		try {
+			boolean solved = solve(board, board.getContentValues(), budget);
+			status = solved ? SolveResult.Status.SOLVED : SolveResult.Status.CONTRADICTION;
+		} catch (Budget.Exhausted e) {
+			status = e.getStatus();
+		}
+		return new SolveResult(status, board, budget.getSteps(), System.nanoTime() - start);
+	}
+
+	/**
+	 * @return true if the board was solved
+	 */
+	private boolean solve(SudokuBoard board, Integer[][] values, Budget budget) {
+		int size = board.getSize();
+		Links links = new Links(board.getBoxSize(), budget);
+		for (int i = 0; i < values.length; i++) {
+			for (int j = 0; j < values[i].length; j++) {
+				if (values[i][j] != null) {
+					links.select(links.candidate(i, j, values[i][j]));
+				}
+			}
+		}
+
+		int[] solution = new int[board.getCellCount()];
+		int found = links.search(solution, 0);
+		for (int k = 0; k < found; k++) {
+			int candidate = solution[k];
+			board.getCell(candidate / size / size, candidate / size % size).setValue(candidate % size + 1);
+		}
+		return board.countSolved() == board.getCellCount();
+	}
+
+	private static class Links {
+
+		private static final int ROOT = 0;
+
+		// the digits, and the number of rows and columns of the board
+		private final int digits;
+		private final int constraints;
+		// column headers are 1..constraints, followed by four nodes for each candidate
+		private final int[] left;
+		private final int[] right;
+		private final int[] up;
+		private final int[] down;
+		private final int[] column;
+		private final int[] size;
+		private final Budget budget;
+		private boolean conflict;
+
+		Links(int boxSize, Budget budget) {
+			this.budget = budget;
+			digits = boxSize * boxSize;
+			int cells = digits * digits;
+			constraints = 4 * cells;
+			int candidates = cells * digits;
+			left = new int[1 + constraints + 4 * candidates];
+			right = new int[left.length];
+			up = new int[left.length];
+			down = new int[left.length];
+			column = new int[left.length];
+			size = new int[1 + constraints];
+			for (int c = 0; c <= constraints; c++) {
+				left[c] = c == ROOT ? constraints : c - 1;
+				right[c] = c == constraints ? ROOT : c + 1;
+				up[c] = c;
+				down[c] = c;
+				column[c] = c;
+			}
+			for (int candidate = 0; candidate < candidates; candidate++) {
+				int row = candidate / cells;
+				int col = candidate / digits % digits;
+				int value = candidate % digits;
+				int first = node(candidate);
+				append(first, 1 + row * digits + col);
+				append(first + 1, 1 + cells + row * digits + value);
+				append(first + 2, 1 + 2 * cells + col * digits + value);
+				append(first + 3, 1 + 3 * cells + (row / boxSize * boxSize + col / boxSize) * digits + value);
+				for (int k = 0; k < 4; k++) {
+					left[first + k] = first + (k + 3) % 4;
+					right[first + k] = first + (k + 1) % 4;
+				}
+			}
+		}
+
+		int candidate(int row, int col, int value) {
+			return (row * digits + col) * digits + value - 1;
+		}
+
+		private int node(int candidate) {
+			return 1 + constraints + 4 * candidate;
+		}
+
+		private int candidateOf(int node) {
+			return (node - 1 - constraints) / 4;
+		}
+
+		private void append(int node, int c) {
+			column[node] = c;
+			up[node] = up[c];
+			down[node] = c;
+			down[up[c]] = node;
+			up[c] = node;
+			size[c]++;
+		}
+
+		private void cover(int c) {
+			right[left[c]] = right[c];
+			left[right[c]] = left[c];
+			for (int i = down[c]; i != c; i = down[i]) {
+				for (int j = right[i]; j != i; j = right[j]) {
+					down[up[j]] = down[j];
+					up[down[j]] = up[j];
+					size[column[j]]--;
+				}
+			}
+		}
+
+		private void uncover(int c) {
+			for (int i = up[c]; i != c; i = up[i]) {
+				for (int j = left[i]; j != i; j = left[j]) {
+					size[column[j]]++;
+					down[up[j]] = j;
+					up[down[j]] = j;
+				}
+			}
+			right[left[c]] = c;
+			left[right[c]] = c;
+		}
+
+		/**
+		 * Takes a given candidate into the cover. A candidate conflicting with an earlier one leaves no solution.
+		 */
+		void select(int candidate) {
+			int first = node(candidate);
+			for (int k = 0; k < 4; k++) {
+				if (isCovered(column[first + k])) {
+					conflict = true;
+					return;
+				}
+			}
+			for (int k = 0; k < 4; k++) {
+				cover(column[first + k]);
+			}
+		}
+
+		private boolean isCovered(int c) {
+			return right[left[c]] != c;
+		}
+
+		/**
+		 * @return the number of candidates written to <code>solution</code> from <code>depth</code>, or 0 if there is no solution
+		 */
+		int search(int[] solution, int depth) {
+			if (conflict) {
+				return 0;
+			}
+			budget.step();
+			if (right[ROOT] == ROOT) {
+				return depth;
+			}
+			int best = right[ROOT];
+			for (int c = right[best]; c != ROOT && size[best] > 1; c = right[c]) {
+				if (size[c] < size[best]) {
+					best = c;
+				}
+			}
+			if (size[best] == 0) {
+				return 0;
+			}
+
+			cover(best);
+			for (int r = down[best]; r != best; r = down[r]) {
+				solution[depth] = candidateOf(r);
+				for (int j = right[r]; j != r; j = right[j]) {
+					cover(column[j]);
+				}
+				int found = search(solution, depth + 1);
+				for (int j = left[r]; j != r; j = left[j]) {
+					uncover(column[j]);
+				}
+				if (found > 0) {
+					uncover(best);
+					return found;
+				}
+			}
+			uncover(best);
+			return 0;
+		}
+	}
+}
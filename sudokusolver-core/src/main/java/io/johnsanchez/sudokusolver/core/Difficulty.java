@@ -0,0 +1,31 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * How hard a puzzle is, by the techniques of {@link SolverCore} it takes to solve it.
+ * Each difficulty uses the techniques of the easier ones too.
+ */
+public enum Difficulty {
+
+	/**
+	 * Singles only: the last value of a group, the only place for a value in a group, the only value left in a cell.
+	 */
+	EASY,
+	/**
+	 * The pairs and triples of {@link SolverCore#solveNext(SudokuBoard, int)}.
+	 */
+	MEDIUM,
+	/**
+	 * Naked and hidden subsets of two to four cells in every group, fish of two to four lines and XY- and XYZ-Wings,
+	 * see {@link CoreStrategy#SUBSETS}, {@link CoreStrategy#FISH} and {@link CoreStrategy#WINGS}.
+	 */
+	HARD,
+	/**
+	 * Guessing with {@link BacktrackingSearch}, which stands in for the fish and the wings of {@link #HARD} since it
+	 * settles them for less, see {@link CoreStrategy#of(Difficulty)}.
+	 */
+	EXPERT;
+
+	public boolean includes(Difficulty other) {
+		return compareTo(other) >= 0;
+	}
+}
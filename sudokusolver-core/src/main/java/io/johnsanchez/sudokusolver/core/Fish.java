@@ -0,0 +1,83 @@
+package io.johnsanchez.sudokusolver.core;
+
+import io.johnsanchez.sudokusolver.core.SudokuCellGroup.LineMode;
+
+/**
+ * Finds the fish of a value on the position masks of the board, see {@link SudokuBoard#getRowPositions(int, int)}:
+ * <code>n</code> base rows whose places for the value all lie in <code>n</code> columns, which leaves the value nowhere
+ * else in those columns, and the same with the columns as base. Two lines make an X-Wing, three a Swordfish and four a
+ * Jellyfish.
+ * <p>
+ * A fish only changes once one of its base lines does, so only the fish with a base line in the changed groups are
+ * looked for.
+ */
+final class Fish {
+
+	static final int MAX_SIZE = 4;
+
+	private Fish() {
+	}
+
+	/**
+	 * Removes what the fish of <code>size</code> lines with a base line in <code>units</code> rule out, for every value.
+	 */
+	static void eliminate(SudokuBoard board, int size, long[] units) {
+		for (int value = 1; value <= board.getSize(); value++) {
+			eliminate(board, value, size, LineMode.ROW, units);
+			eliminate(board, value, size, LineMode.COLUMN, units);
+		}
+	}
+
+	private static void eliminate(SudokuBoard board, int value, int size, LineMode base, long[] units) {
+		SudokuCellGroup[] lines = board.getUnits(base);
+		// the lines with 2 to size places for the value, which might be part of a fish
+		long candidates = 0;
+		boolean changed = false;
+		for (int line = 0; line < lines.length; line++) {
+			int places = Long.bitCount(positions(board, value, base, line));
+			if (places >= 2 && places <= size) {
+				candidates |= 1L << line;
+				changed |= lines[line].isIn(units);
+			}
+		}
+		if (changed && Long.bitCount(candidates) >= size) {
+			search(board, value, size, base, candidates, 0L, 0L);
+		}
+	}
+
+	/**
+	 * Adds to the base <code>lines</code> picked so far every way to pick the rest of <code>size</code> from
+	 * <code>rest</code>, as long as their places cover at most <code>size</code> lines across.
+	 */
+	private static void search(SudokuBoard board, int value, int size, LineMode base, long rest, long lines, long cover) {
+		int picked = Long.bitCount(lines);
+		for (; Long.bitCount(rest) >= size - picked; rest = Candidates.withoutLowest(rest)) {
+			int line = Long.numberOfTrailingZeros(rest);
+			long union = cover | positions(board, value, base, line);
+			if (Long.bitCount(union) > size) {
+				continue;
+			}
+			if (picked + 1 < size) {
+				search(board, value, size, base, Candidates.withoutLowest(rest), lines | 1L << line, union);
+			} else if (Long.bitCount(union) == size) {
+				remove(board, value, base, lines | 1L << line, union);
+			}
+		}
+	}
+
+	private static void remove(SudokuBoard board, int value, LineMode base, long lines, long cover) {
+		LineMode across = base == LineMode.ROW ? LineMode.COLUMN : LineMode.ROW;
+		for (long rest = cover; rest != 0; rest = Candidates.withoutLowest(rest)) {
+			int line = Long.numberOfTrailingZeros(rest);
+			for (long others = positions(board, value, across, line) & ~lines; others != 0; others = Candidates.withoutLowest(others)) {
+				int other = Long.numberOfTrailingZeros(others);
+				SudokuCell cell = base == LineMode.ROW ? board.getCell(other, line) : board.getCell(line, other);
+				cell.removePossibility(value);
+			}
+		}
+	}
+
+	private static long positions(SudokuBoard board, int value, LineMode mode, int line) {
+		return mode == LineMode.ROW ? board.getRowPositions(value, line) : board.getColPositions(value, line);
+	}
+}
@@ -0,0 +1,33 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * The layout of the files of {@link PackedPuzzleReader} and {@link PackedPuzzleWriter}: a header, then one record per
+ * board of a fixed size, so that the record of a board is found from its index alone.
+ * <p>
+ * The header holds the magic number, the version, the box size, the bits per cell, the bytes per record and the number of
+ * records. A record holds every cell row by row, packed most significant bit first in the fewest bits which fit the
+ * digits, 0 for a blank: 4 bits and 41 bytes for a 9x9 board.
+ */
+final class PackedFormat {
+
+	static final int MAGIC = 0x53444B50;
+	static final byte VERSION = 1;
+	static final int HEADER = 32;
+	static final int VERSION_AT = 4;
+	static final int BOX_SIZE_AT = 5;
+	static final int BITS_AT = 6;
+	static final int RECORD_BYTES_AT = 8;
+	static final int COUNT_AT = 16;
+
+	private PackedFormat() {
+	}
+
+	static int bitsPerCell(int boxSize) {
+		return Integer.SIZE - Integer.numberOfLeadingZeros(boxSize * boxSize);
+	}
+
+	static int recordBytes(int boxSize) {
+		int cells = boxSize * boxSize * boxSize * boxSize;
+		return (cells * bitsPerCell(boxSize) + Byte.SIZE - 1) / Byte.SIZE;
+	}
+}
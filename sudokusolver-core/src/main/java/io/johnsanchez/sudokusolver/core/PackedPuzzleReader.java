@@ -0,0 +1,163 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the boards of a file written by {@link PackedPuzzleWriter}, see {@link PackedFormat}, in order or by index.
+ * The file is memory-mapped in regions of whole records, and a board is decoded from the mapping straight into a
+ * {@link SudokuBoard} without building its values first.
+ * <p>
+ * Reading by index does not move the cursor of {@link #next()}, so threads can share a reader as long as only one of
+ * them reads in order.
+ */
+public class PackedPuzzleReader implements Closeable {
+
+	// records per mapped region are rounded down to fit
+	private static final long REGION = 1L << 30;
+
+	private final FileChannel channel;
+	private final int boxSize;
+	private final int size;
+	private final int bits;
+	private final int recordBytes;
+	private final long count;
+	private final long recordsPerRegion;
+	private final MappedByteBuffer[] regions;
+	private long next;
+
+	/**
+	 * @throws IllegalArgumentException if the file is not in the packed format
+	 */
+	public static PackedPuzzleReader open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			return new PackedPuzzleReader(channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private PackedPuzzleReader(FileChannel channel) throws IOException {
+		this.channel = channel;
+		ByteBuffer header = ByteBuffer.allocate(PackedFormat.HEADER);
+		while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+			// until the header is full or the file ends
+		}
+		if (header.hasRemaining() || header.getInt(0) != PackedFormat.MAGIC) {
+			throw new IllegalArgumentException("Not a packed puzzle file");
+		}
+		if (header.get(PackedFormat.VERSION_AT) != PackedFormat.VERSION) {
+			throw new IllegalArgumentException("Unknown version " + header.get(PackedFormat.VERSION_AT) + " of the packed format");
+		}
+		this.boxSize = header.get(PackedFormat.BOX_SIZE_AT);
+		this.size = boxSize * boxSize;
+		this.bits = header.get(PackedFormat.BITS_AT);
+		this.recordBytes = header.getInt(PackedFormat.RECORD_BYTES_AT);
+		this.count = header.getLong(PackedFormat.COUNT_AT);
+		if (boxSize < 1 || boxSize > SudokuBoard.MAX_BOX_SIZE || bits != PackedFormat.bitsPerCell(boxSize)
+				|| recordBytes != PackedFormat.recordBytes(boxSize) || PackedFormat.HEADER + count * recordBytes > channel.size()) {
+			throw new IllegalArgumentException("Corrupt header of a packed puzzle file");
+		}
+
+		this.recordsPerRegion = REGION / recordBytes;
+		this.regions = new MappedByteBuffer[(int) ((count + recordsPerRegion - 1) / recordsPerRegion)];
+		for (int r = 0; r < regions.length; r++) {
+			long first = r * recordsPerRegion;
+			long records = Math.min(recordsPerRegion, count - first);
+			regions[r] = channel.map(MapMode.READ_ONLY, PackedFormat.HEADER + first * recordBytes, records * recordBytes);
+		}
+	}
+
+	/**
+	 * @return the number of boards in the file
+	 */
+	public long size() {
+		return count;
+	}
+
+	public int getBoxSize() {
+		return boxSize;
+	}
+
+	/**
+	 * Resets <code>board</code> and sets the givens of board <code>index</code>, like {@link SudokuBoard#load(Integer[][])}.
+	 * Solve it with e.g. {@link SolverCore#solve(SudokuBoard)}.
+	 */
+	public SudokuBoard load(long index, SudokuBoard board) {
+		if (board.getBoxSize() != boxSize) {
+			throw new IllegalArgumentException("Expected a board with boxes of " + boxSize + " but got " + board.getBoxSize());
+		}
+		board.reset();
+		decode(index, (value, row, col) -> board.setValue(value, row, col));
+		return board;
+	}
+
+	/**
+	 * @return the values of board <code>index</code>, <code>null</code> for a blank
+	 */
+	public Integer[][] get(long index) {
+		Integer[][] values = new Integer[size][size];
+		decode(index, (value, row, col) -> values[row][col] = value);
+		return values;
+	}
+
+	public boolean hasNext() {
+		return next < count;
+	}
+
+	/**
+	 * Like {@link #load(long, SudokuBoard)} for the board after the one read last.
+	 */
+	public SudokuBoard loadNext(SudokuBoard board) {
+		return load(next++, board);
+	}
+
+	/**
+	 * Like {@link #get(long)} for the board after the one read last.
+	 */
+	public Integer[][] next() {
+		return get(next++);
+	}
+
+	private void decode(long index, Cells cells) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException("Board " + index + " of " + count);
+		}
+		MappedByteBuffer region = regions[(int) (index / recordsPerRegion)];
+		int position = (int) (index % recordsPerRegion) * recordBytes;
+		int mask = (1 << bits) - 1;
+		int buffered = 0;
+		int available = 0;
+		for (int cell = 0; cell < size * size; cell++) {
+			while (available < bits) {
+				buffered = buffered << Byte.SIZE | region.get(position++) & 0xFF;
+				available += Byte.SIZE;
+			}
+			available -= bits;
+			int value = buffered >>> available & mask;
+			if (value != 0) {
+				cells.set(value, cell / size, cell % size);
+			}
+		}
+	}
+
+	/**
+	 * Receives the given cells of a decoded board.
+	 */
+	private interface Cells {
+		void set(int value, int row, int col);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,125 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes puzzles or solutions in the format of {@link PackedFormat}, for {@link PackedPuzzleReader}.
+ * Records are appended through a buffer of its own, and the number of records is only written to the header on
+ * {@link #close()}, until then the file reads as empty.
+ */
+public class PackedPuzzleWriter implements Closeable {
+
+	private static final int BUFFER = 1 << 16;
+
+	private final FileChannel channel;
+	private final int boxSize;
+	private final int size;
+	private final int bits;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER);
+	private long count;
+
+	/**
+	 * Creates the file, or truncates it, for boards with boxes of <code>boxSize</code>, see {@link SudokuBoard#SudokuBoard(int)}.
+	 */
+	public static PackedPuzzleWriter create(Path file, int boxSize) throws IOException {
+		return new PackedPuzzleWriter(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), boxSize);
+	}
+
+	private PackedPuzzleWriter(FileChannel channel, int boxSize) throws IOException {
+		this.channel = channel;
+		this.boxSize = boxSize;
+		this.size = boxSize * boxSize;
+		this.bits = PackedFormat.bitsPerCell(boxSize);
+		writeHeader();
+		channel.position(PackedFormat.HEADER);
+	}
+
+	public void write(Integer[][] values) throws IOException {
+		if (values.length != size) {
+			throw new IllegalArgumentException("Expected " + size + " rows but got " + values.length);
+		}
+		write((row, col) -> values[row][col]);
+	}
+
+	/**
+	 * Writes the values of a board, e.g. a solution, without copying them out of the board first.
+	 */
+	public void write(SudokuBoard board) throws IOException {
+		if (board.getBoxSize() != boxSize) {
+			throw new IllegalArgumentException("Expected a board with boxes of " + boxSize + " but got " + board.getBoxSize());
+		}
+		write((row, col) -> board.getCell(row, col).getValue());
+	}
+
+	private void write(Cells cells) throws IOException {
+		if (buffer.remaining() < PackedFormat.recordBytes(boxSize)) {
+			drain();
+		}
+		int buffered = 0;
+		int available = 0;
+		for (int cell = 0; cell < size * size; cell++) {
+			Integer value = cells.get(cell / size, cell % size);
+			buffered = buffered << bits | (value == null ? 0 : value);
+			available += bits;
+			while (available >= Byte.SIZE) {
+				available -= Byte.SIZE;
+				buffer.put((byte) (buffered >>> available));
+			}
+		}
+		if (available > 0) {
+			buffer.put((byte) (buffered << Byte.SIZE - available));
+		}
+		count++;
+	}
+
+	/**
+	 * The cells of a board to encode.
+	 */
+	private interface Cells {
+		Integer get(int row, int col);
+	}
+
+	/**
+	 * @return the number of boards written so far
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	private void drain() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void writeHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(PackedFormat.HEADER);
+		header.putInt(0, PackedFormat.MAGIC);
+		header.put(PackedFormat.VERSION_AT, PackedFormat.VERSION);
+		header.put(PackedFormat.BOX_SIZE_AT, (byte) boxSize);
+		header.put(PackedFormat.BITS_AT, (byte) bits);
+		header.putInt(PackedFormat.RECORD_BYTES_AT, PackedFormat.recordBytes(boxSize));
+		header.putLong(PackedFormat.COUNT_AT, count);
+		long position = 0;
+		while (header.hasRemaining()) {
+			position += channel.write(header, position);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			drain();
+			writeHeader();
+		} finally {
+			channel.close();
+		}
+	}
+}
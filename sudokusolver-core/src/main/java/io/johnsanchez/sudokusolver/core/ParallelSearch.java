@@ -0,0 +1,204 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Searches a single puzzle on a {@link ForkJoinPool} once the solver passes stall. Each possibility of the most
+ * constrained cell is a task of its own, working on its own copy of the board, and idle workers steal the branches
+ * which have not started yet. Once a worker has enough queued work, it searches its branch with a sequential
+ * {@link BacktrackingSearch}.
+ * Solving cancels the other branches at the first solution, counting adds up the branches until the limit is reached.
+ */
+public class ParallelSearch implements SudokuSolver {
+
+	// queued tasks a worker may have before it stops splitting its branches
+	private static final int SURPLUS = 2;
+	// guesses deep, the copies of the board cost more than the branches are worth
+	private static final int MAX_SPLIT_DEPTH = 4;
+
+	private final SolverCore core = new SolverCore();
+	private final ForkJoinPool pool;
+
+	public ParallelSearch() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public ParallelSearch(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	@Override
+	public SudokuBoard solve(Integer[][] values) {
+		return solve(new SudokuBoard(SudokuBoard.boxSizeOf(values.length)), values);
+	}
+
+	/**
+	 * Solves the puzzle with the solver passes, and searches the rest in parallel once they stall.
+	 * If the puzzle has no solution, the board is returned as far as the passes got.
+	 */
+	@Override
+	public SudokuBoard solve(SudokuBoard board, Integer[][] values) {
+		board.load(values);
+		search(board, Budget.NONE);
+		return board;
+	}
+
+	/**
+	 * The forked branches count down the <code>limits</code> together. A search given up leaves the board as the passes
+	 * left it.
+	 */
+	@Override
+	public SolveResult solve(SudokuBoard board, SolveLimits limits) {
+		long start = System.nanoTime();
+		Budget budget = new Budget.Shared(limits);
+		SolveResult.Status status;
+		try {
+			boolean solved = search(board, budget);
+			status = solved ? SolveResult.Status.SOLVED : SolveResult.Status.CONTRADICTION;
+		} catch (Budget.Exhausted e) {
+			status = e.getStatus();
+		} catch (ContradictionException e) {
+			status = SolveResult.Status.CONTRADICTION;
+		}
+		return new SolveResult(status, board, budget.getSteps(), System.nanoTime() - start);
+	}
+
+	/**
+	 * @return true if the board was solved
+	 */
+	private boolean search(SudokuBoard board, Budget budget) {
+		core.propagate(board, SolveListener.NONE, budget);
+		if (board.countSolved() < board.getCellCount()) {
+			budget.check();
+			Branches branches = new Branches(1, budget);
+			pool.invoke(new Branch(branches, board, 0, 0, 0, 0));
+			SudokuBoard solution = branches.solution.get();
+			if (solution == null) {
+				return false;
+			}
+			if (solution != board) {
+				board.restoreState(solution.saveState());
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Like {@link SolverCore#countSolutions(Integer[][], int)}, with the branches counted in parallel.
+	 */
+	public int countSolutions(Integer[][] values, int limit) {
+		SudokuBoard board = new SudokuBoard(SudokuBoard.boxSizeOf(values.length));
+		try {
+			board.load(values);
+			core.propagate(board, SolveListener.NONE);
+		} catch (ContradictionException e) {
+			return 0;
+		}
+		if (limit <= 0) {
+			return 0;
+		}
+		Branches branches = new Branches(limit, Budget.NONE);
+		pool.invoke(new Branch(branches, board, 0, 0, 0, 0));
+		return Math.min(branches.found.get(), limit);
+	}
+
+	/**
+	 * What the branches of one search share.
+	 */
+	private static class Branches {
+
+		private final int limit;
+		private final Budget budget;
+		private final AtomicInteger found = new AtomicInteger();
+		private final AtomicReference<SudokuBoard> solution = new AtomicReference<>();
+
+		Branches(int limit, Budget budget) {
+			this.limit = limit;
+			this.budget = budget;
+		}
+
+		boolean isDone() {
+			return found.get() >= limit;
+		}
+
+		void found(SudokuBoard board) {
+			solution.compareAndSet(null, board);
+			found.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Guesses <code>value</code> at (<code>row</code>, <code>col</code>) on a copy of the board of its parent,
+	 * or searches that board itself for the root, which has no value.
+	 */
+	private class Branch extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Branches branches;
+		private final SudokuBoard parent;
+		private final int depth;
+		private final int row;
+		private final int col;
+		private final int value;
+
+		Branch(Branches branches, SudokuBoard parent, int depth, int row, int col, int value) {
+			this.branches = branches;
+			this.parent = parent;
+			this.depth = depth;
+			this.row = row;
+			this.col = col;
+			this.value = value;
+		}
+
+		@Override
+		protected void compute() {
+			if (branches.isDone()) {
+				return;
+			}
+			SudokuBoard board = parent;
+			if (value != 0) {
+				// the parent only waits for its branches, so they can all copy it at once
+				board = parent.copy();
+				try {
+					board.getCell(row, col).setValue(value);
+					core.propagate(board, SolveListener.NONE, branches.budget);
+				} catch (ContradictionException e) {
+					return;
+				}
+			}
+			if (!board.isConsistent()) {
+				return;
+			}
+			SudokuCell cell = board.mostConstrained();
+			if (cell == null) {
+				branches.found(board);
+				return;
+			}
+
+			if (depth >= MAX_SPLIT_DEPTH || getSurplusQueuedTaskCount() > SURPLUS) {
+				BacktrackingSearch search = new BacktrackingSearch(core, branches.found, branches.limit, branches.budget);
+				if (branches.limit == 1) {
+					if (search.search(board)) {
+						branches.found(board);
+					}
+				} else {
+					// adds each solution to the shared count as it goes
+					search.count(board, branches.limit);
+				}
+				return;
+			}
+
+			List<Branch> forks = new ArrayList<>();
+			for (long rest = cell.getPossibilityMask(); rest != 0; rest = Candidates.withoutLowest(rest)) {
+				forks.add(new Branch(branches, board, depth + 1, cell.getRow(), cell.getCol(), Candidates.lowest(rest)));
+			}
+			invokeAll(forks);
+		}
+	}
+}
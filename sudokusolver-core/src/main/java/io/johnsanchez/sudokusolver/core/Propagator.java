@@ -0,0 +1,109 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * FIFO queue of the consequences of a change to a cell, processed iteratively.
+ * <p>
+ * Setting a value records it on the cell and its groups right away, and queues the rest: removing the value
+ * from the other cells of the groups and letting the partners of the cell react. Dropping flags queues the
+ * reaction of the partners. Reactions which set further values are queued behind, so the stack stays flat
+ * and the order is the order of the changes. The queue is drained before the outermost change returns.
+ */
+final class Propagator {
+
+	private SudokuCell[] cells = new SudokuCell[32];
+	private long[] removedFlags = new long[cells.length];
+	private boolean[] assigned = new boolean[cells.length];
+	private int head;
+	private int size;
+	private boolean draining;
+
+	void assigned(SudokuCell cell, long flags) {
+		enqueue(cell, flags, true);
+	}
+
+	void flagsDropped(SudokuCell cell, long flags) {
+		enqueue(cell, flags, false);
+	}
+
+	private void enqueue(SudokuCell cell, long flags, boolean isAssigned) {
+		if (size == cells.length) {
+			grow();
+		}
+		int tail = (head + size) % cells.length;
+		cells[tail] = cell;
+		removedFlags[tail] = flags;
+		assigned[tail] = isAssigned;
+		size++;
+		if (!draining) {
+			drain();
+		}
+	}
+
+	private void drain() {
+		draining = true;
+		try {
+			while (size > 0) {
+				SudokuCell cell = cells[head];
+				long flags = removedFlags[head];
+				boolean isAssigned = assigned[head];
+				cells[head] = null;
+				head = (head + 1) % cells.length;
+				size--;
+
+				if (isAssigned) {
+					eliminate(cell);
+				}
+				cell.notifyPartners(flags);
+			}
+		} finally {
+			clear();
+			draining = false;
+		}
+	}
+
+	/**
+	 * Removes the value of <code>cell</code> from its peers, which the rows, the columns and the boxes would visit up to
+	 * twice each.
+	 */
+	private static void eliminate(SudokuCell cell) {
+		int value = cell.getValue();
+		SudokuBoard board = cell.getGroup().getBoard();
+		Topology topology = board.getTopology();
+		int index = cell.getIndex();
+		for (int k = 0; k < topology.getPeerCount(); k++) {
+			SudokuCell peer = board.getCell(topology.peer(index, k));
+			if (peer.getValue() == null) {
+				peer.removePossibility(value);
+			}
+			peer.removeFlag(value);
+		}
+	}
+
+	private void grow() {
+		SudokuCell[] newCells = new SudokuCell[cells.length * 2];
+		long[] newRemovedFlags = new long[newCells.length];
+		boolean[] newAssigned = new boolean[newCells.length];
+		for (int i = 0; i < size; i++) {
+			int from = (head + i) % cells.length;
+			newCells[i] = cells[from];
+			newRemovedFlags[i] = removedFlags[from];
+			newAssigned[i] = assigned[from];
+		}
+		cells = newCells;
+		removedFlags = newRemovedFlags;
+		assigned = newAssigned;
+		head = 0;
+	}
+
+	/**
+	 * Drops whatever is left, e.g. after a contradiction interrupted the draining.
+	 */
+	private void clear() {
+		while (size > 0) {
+			cells[head] = null;
+			head = (head + 1) % cells.length;
+			size--;
+		}
+		head = 0;
+	}
+}
@@ -0,0 +1,378 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates puzzles with a unique solution and a given {@link Difficulty}.
+ * <p>
+ * A full grid is completed by {@link DancingLinksSolver} from random diagonal boxes, which never conflict, and its
+ * rows and columns are shuffled within their bands and stacks. Clues are then taken out in random order for as long as
+ * the solution stays unique. Below {@link Difficulty#EXPERT} that means as long as the techniques of the difficulty
+ * still solve the puzzle, because a solve without guessing proves the solution unique on its own. For
+ * {@link Difficulty#EXPERT} the solutions are counted up to two. Most clues are checked much faster, though: a clue
+ * which the clues left force back as a single needs no check, and a puzzle which singles alone solve needs no
+ * {@link SudokuBoard}. A puzzle which does not grade to the difficulty it was made for is dropped, and the generator
+ * starts over with a new grid.
+ * <p>
+ * Puzzles are numbered from the seed, so the same seed gives the same puzzles whatever the number of threads.
+ */
+public class PuzzleGenerator {
+
+	// spreads consecutive numbers over the seeds, see SplittableRandom
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private final int boxSize;
+	private final long seed;
+	private final ForkJoinPool pool;
+	private final AtomicLong sequence = new AtomicLong();
+	private final BoardPool boards = new BoardPool();
+	// one solver for the techniques of each difficulty, they hold no state of their own
+	private final SolverCore[] solvers = new SolverCore[Difficulty.values().length];
+	private final DancingLinksSolver links = new DancingLinksSolver();
+	// the peers of each cell and the cells of each group, by cell index (row * size + col)
+	private final Topology topology;
+
+	public PuzzleGenerator(long seed) {
+		this(3, seed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param boxSize 3 for 9x9 puzzles, see {@link SudokuBoard#SudokuBoard(int)}
+	 */
+	public PuzzleGenerator(int boxSize, long seed, ForkJoinPool pool) {
+		this.boxSize = boxSize;
+		this.seed = seed;
+		this.pool = pool;
+		for (Difficulty difficulty : Difficulty.values()) {
+			solvers[difficulty.ordinal()] = new SolverCore(SolveListener.NONE, difficulty);
+		}
+		topology = Topology.of(boxSize);
+	}
+
+	/**
+	 * Generates the next puzzle on the calling thread.
+	 */
+	public Integer[][] generate(Difficulty difficulty) {
+		return generate(difficulty, random(sequence.getAndIncrement()));
+	}
+
+	/**
+	 * Generates the next <code>count</code> puzzles in parallel on the pool.
+	 */
+	public List<Integer[][]> generate(Difficulty difficulty, int count) {
+		long first = sequence.getAndAdd(count);
+		return pool.submit(() -> IntStream.range(0, count).parallel()
+				.mapToObj(i -> generate(difficulty, random(first + i)))
+				.collect(Collectors.toList())).join();
+	}
+
+	private SplittableRandom random(long number) {
+		return new SplittableRandom(seed + number * GOLDEN_GAMMA);
+	}
+
+	private Integer[][] generate(Difficulty difficulty, SplittableRandom random) {
+		while (true) {
+			Integer[][] puzzle = removeClues(grid(random), difficulty, random);
+			if (grade(puzzle) == difficulty) {
+				return puzzle;
+			}
+		}
+	}
+
+	/**
+	 * @return the easiest difficulty whose techniques solve the puzzle, {@link Difficulty#EXPERT} if it takes guessing.
+	 * The solution is assumed to be unique.
+	 */
+	public Difficulty grade(Integer[][] values) {
+		SudokuBoard board = boards.get(values);
+		for (Difficulty difficulty : Difficulty.values()) {
+			if (difficulty == Difficulty.EXPERT || solves(board, values, difficulty)) {
+				return difficulty;
+			}
+		}
+		return Difficulty.EXPERT;
+	}
+
+	private boolean solves(SudokuBoard board, Integer[][] values, Difficulty techniques) {
+		try {
+			solvers[techniques.ordinal()].solve(board, values);
+		} catch (ContradictionException e) {
+			return false;
+		}
+		return board.countSolved() == board.getCellCount();
+	}
+
+	private Integer[][] grid(SplittableRandom random) {
+		int size = boxSize * boxSize;
+		SudokuBoard board = boards.get(boxSize);
+		Integer[][] values = new Integer[size][size];
+		do {
+			for (int box = 0; box < boxSize; box++) {
+				int[] digits = shuffle(size, random);
+				for (int k = 0; k < size; k++) {
+					values[box * boxSize + k / boxSize][box * boxSize + k % boxSize] = digits[k] + 1;
+				}
+			}
+			links.solve(board, values);
+		} while (board.countSolved() < board.getCellCount());
+
+		int[] rows = shuffleLines(random);
+		int[] cols = shuffleLines(random);
+		Integer[][] grid = new Integer[size][size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				grid[i][j] = board.getCell(rows[i], cols[j]).getValue();
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * @return the lines in a random order which keeps them in bands (or stacks), with the bands in a random order too
+	 */
+	private int[] shuffleLines(SplittableRandom random) {
+		int[] bands = shuffle(boxSize, random);
+		int[] lines = new int[boxSize * boxSize];
+		for (int band = 0; band < boxSize; band++) {
+			int[] inBand = shuffle(boxSize, random);
+			for (int k = 0; k < boxSize; k++) {
+				lines[band * boxSize + k] = bands[band] * boxSize + inBand[k];
+			}
+		}
+		return lines;
+	}
+
+	private static int[] shuffle(int n, SplittableRandom random) {
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			int j = random.nextInt(i + 1);
+			values[i] = values[j];
+			values[j] = i;
+		}
+		return values;
+	}
+
+	private Integer[][] removeClues(Integer[][] grid, Difficulty difficulty, SplittableRandom random) {
+		int size = grid.length;
+		SudokuBoard board = boards.get(boxSize);
+		Integer[][] puzzle = grid;
+		// the clues left in each row, column and box
+		long[] rows = new long[size];
+		long[] cols = new long[size];
+		long[] boxes = new long[size];
+		for (int i = 0; i < size; i++) {
+			rows[i] = Candidates.all(size);
+			cols[i] = Candidates.all(size);
+			boxes[i] = Candidates.all(size);
+		}
+		for (int cell : shuffle(size * size, random)) {
+			int row = cell / size;
+			int col = cell % size;
+			int box = row / boxSize * boxSize + col / boxSize;
+			Integer value = puzzle[row][col];
+			long bit = Candidates.bit(value);
+			puzzle[row][col] = null;
+			rows[row] &= ~bit;
+			cols[col] &= ~bit;
+			boxes[box] &= ~bit;
+			if (!isForced(puzzle, row, col, value, rows, cols, boxes) && !isUnique(board, puzzle, difficulty)) {
+				puzzle[row][col] = value;
+				rows[row] |= bit;
+				cols[col] |= bit;
+				boxes[box] |= bit;
+			}
+		}
+		return puzzle;
+	}
+
+	/**
+	 * @return true if the clues left force <code>value</code> back into the blank at (<code>row</code>, <code>col</code>)
+	 * as a single, so the puzzle keeps its solution and takes no other techniques than before
+	 */
+	private boolean isForced(Integer[][] puzzle, int row, int col, int value, long[] rows, long[] cols, long[] boxes) {
+		int size = puzzle.length;
+		long all = Candidates.all(size);
+		long bit = Candidates.bit(value);
+		if ((rows[row] | cols[col] | boxes[row / boxSize * boxSize + col / boxSize]) == (all & ~bit)) {
+			return true;
+		}
+		boolean inRow = true;
+		boolean inCol = true;
+		for (int k = 0; k < size; k++) {
+			if (k != col && puzzle[row][k] == null && !isBlocked(row, k, bit, rows, cols, boxes)) {
+				inRow = false;
+			}
+			if (k != row && puzzle[k][col] == null && !isBlocked(k, col, bit, rows, cols, boxes)) {
+				inCol = false;
+			}
+		}
+		if (inRow || inCol) {
+			return true;
+		}
+		int top = row / boxSize * boxSize;
+		int left = col / boxSize * boxSize;
+		for (int k = 0; k < size; k++) {
+			int i = top + k / boxSize;
+			int j = left + k % boxSize;
+			if ((i != row || j != col) && puzzle[i][j] == null && !isBlocked(i, j, bit, rows, cols, boxes)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isBlocked(int row, int col, long bit, long[] rows, long[] cols, long[] boxes) {
+		return ((rows[row] | cols[col] | boxes[row / boxSize * boxSize + col / boxSize]) & bit) != 0;
+	}
+
+	private boolean isUnique(SudokuBoard board, Integer[][] puzzle, Difficulty difficulty) {
+		if (solvesQuickly(puzzle, difficulty != Difficulty.EASY)) {
+			return true;
+		}
+		if (difficulty == Difficulty.EASY) {
+			return false;
+		}
+		if (difficulty != Difficulty.EXPERT) {
+			return solves(board, puzzle, difficulty);
+		}
+		return solves(board, puzzle, Difficulty.HARD) || solvers[Difficulty.EXPERT.ordinal()].countSolutions(board, puzzle, 2) == 1;
+	}
+
+	/**
+	 * The techniques of {@link Difficulty#EASY} on plain masks, without the bookkeeping of a {@link SudokuBoard}, and
+	 * optionally the pointing lines of a group of {@link Difficulty#MEDIUM}.
+	 * 
+	 * @return true if they solve the puzzle, which proves its solution unique
+	 */
+	private boolean solvesQuickly(Integer[][] puzzle, boolean pointing) {
+		int size = puzzle.length;
+		long[] candidates = new long[size * size];
+		int[] values = new int[size * size];
+		Arrays.fill(candidates, Candidates.all(size));
+		int placed = 0;
+		for (int cell = 0; cell < values.length; cell++) {
+			Integer value = puzzle[cell / size][cell % size];
+			if (value != null) {
+				if (!place(cell, value, candidates, values)) {
+					return false;
+				}
+				placed++;
+			}
+		}
+
+		boolean progress = true;
+		while (progress && placed < values.length) {
+			progress = false;
+			for (int cell = 0; cell < values.length; cell++) {
+				if (values[cell] == 0 && Candidates.count(candidates[cell]) == 1) {
+					if (!place(cell, Candidates.lowest(candidates[cell]), candidates, values)) {
+						return false;
+					}
+					placed++;
+					progress = true;
+				}
+			}
+			for (int unit = 0; unit < 3 * size; unit++) {
+				// the values with exactly one place left in the group
+				long once = Candidates.NONE;
+				long twice = Candidates.NONE;
+				for (int k = 0; k < size; k++) {
+					int cell = topology.cellOf(unit, k);
+					if (values[cell] == 0) {
+						twice |= once & candidates[cell];
+						once |= candidates[cell];
+					}
+				}
+				for (long rest = once & ~twice; rest != 0; rest = Candidates.withoutLowest(rest)) {
+					int value = Candidates.lowest(rest);
+					for (int k = 0; k < size; k++) {
+						int cell = topology.cellOf(unit, k);
+						if (values[cell] == 0 && Candidates.contains(candidates[cell], value)) {
+							if (!place(cell, value, candidates, values)) {
+								return false;
+							}
+							placed++;
+							progress = true;
+							break;
+						}
+					}
+				}
+			}
+			if (!progress && pointing) {
+				progress = removePointing(candidates, values);
+			}
+		}
+		return placed == values.length;
+	}
+
+	/**
+	 * Removes a value from the rest of a row or column when all the places left for it in a group are on that line.
+	 * 
+	 * @param candidates the possibilities of each cell, by <code>row * size + col</code>
+	 * @param values the value of each cell, 0 for a blank
+	 * @return true if a possibility was removed
+	 */
+	boolean removePointing(long[] candidates, int[] values) {
+		int size = boxSize * boxSize;
+		boolean removed = false;
+		for (int u = 2 * size; u < 3 * size; u++) {
+			// the lines of boxes the box is in, whose cells keep the value
+			int band = topology.cellOf(u, 0) / size / boxSize;
+			int stack = topology.cellOf(u, 0) % size / boxSize;
+			long unsolved = Candidates.NONE;
+			for (int k = 0; k < size; k++) {
+				int cell = topology.cellOf(u, k);
+				if (values[cell] == 0) {
+					unsolved |= candidates[cell];
+				}
+			}
+			for (long rest = unsolved; rest != 0; rest = Candidates.withoutLowest(rest)) {
+				long bit = Candidates.bit(Candidates.lowest(rest));
+				int row = -1;
+				int col = -1;
+				for (int k = 0; k < size; k++) {
+					int cell = topology.cellOf(u, k);
+					if (values[cell] == 0 && (candidates[cell] & bit) != 0) {
+						row = row == -1 || row == cell / size ? cell / size : -2;
+						col = col == -1 || col == cell % size ? cell % size : -2;
+					}
+				}
+				for (int k = 0; k < size; k++) {
+					int inRow = row * size + k;
+					if (row >= 0 && k / boxSize != stack && values[inRow] == 0 && (candidates[inRow] & bit) != 0) {
+						candidates[inRow] &= ~bit;
+						removed = true;
+					}
+					int inCol = k * size + col;
+					if (col >= 0 && k / boxSize != band && values[inCol] == 0 && (candidates[inCol] & bit) != 0) {
+						candidates[inCol] &= ~bit;
+						removed = true;
+					}
+				}
+			}
+		}
+		return removed;
+	}
+
+	private boolean place(int cell, int value, long[] candidates, int[] values) {
+		if (!Candidates.contains(candidates[cell], value)) {
+			return false;
+		}
+		values[cell] = value;
+		candidates[cell] = Candidates.bit(value);
+		for (int k = 0; k < topology.getPeerCount(); k++) {
+			int peer = topology.peer(cell, k);
+			if (values[peer] == value) {
+				return false;
+			}
+			candidates[peer] &= ~Candidates.bit(value);
+		}
+		return true;
+	}
+}
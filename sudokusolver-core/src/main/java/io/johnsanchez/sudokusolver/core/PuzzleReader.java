@@ -0,0 +1,175 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads puzzles in the common format of one line each: one character per cell, row by row, with <code>.</code> or
+ * <code>0</code> for a blank, the digits 1..9 and then the letters from <code>A</code> for 10. The letters end at
+ * <code>Z</code> for 35, so the boards go up to 25x25, see {@link #MAX_BOX_SIZE}. Anything after the first
+ * whitespace of a line is ignored, e.g. a solution, and so are empty lines and lines starting with <code>#</code>.
+ * <p>
+ * A file is memory-mapped a region at a time instead of being copied through a stream.
+ */
+public class PuzzleReader implements Closeable {
+
+	/**
+	 * The largest box size of a board with a character for each of its digits.
+	 */
+	public static final int MAX_BOX_SIZE = 5;
+
+	// a line may straddle two regions, it is read a byte at a time anyway
+	private static final long REGION = 1L << 28;
+	private static final int BUFFER = 1 << 16;
+
+	private final FileChannel channel;
+	private final InputStream in;
+	private ByteBuffer buffer;
+	// how far the file has been mapped
+	private long mapped;
+	private byte[] line = new byte[256];
+	private int lineNumber;
+
+	/**
+	 * Reads a file through memory-mapped regions.
+	 */
+	public static PuzzleReader open(Path file) throws IOException {
+		return new PuzzleReader(FileChannel.open(file, StandardOpenOption.READ));
+	}
+
+	private PuzzleReader(FileChannel channel) {
+		this.channel = channel;
+		this.in = null;
+		this.buffer = ByteBuffer.allocate(0);
+	}
+
+	/**
+	 * Reads a stream through a buffer of its own, e.g. {@link System#in}.
+	 */
+	public PuzzleReader(InputStream in) {
+		this.channel = null;
+		this.in = in;
+		this.buffer = ByteBuffer.allocate(BUFFER);
+		buffer.limit(0);
+	}
+
+	/**
+	 * @return the next puzzle, or <code>null</code> at the end of the input
+	 * @throws IllegalArgumentException if a line is no puzzle
+	 */
+	public Integer[][] next() throws IOException {
+		int length;
+		while ((length = readLine()) >= 0) {
+			lineNumber++;
+			if (length > 0 && line[0] != '#') {
+				return parse(length);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the next line into {@link #line} up to its first whitespace after the leading ones.
+	 *
+	 * @return the number of characters kept, or -1 at the end of the input
+	 */
+	private int readLine() throws IOException {
+		int length = 0;
+		boolean any = false;
+		boolean ended = false;
+		int b;
+		while ((b = read()) != '\n') {
+			if (b < 0) {
+				return any ? length : -1;
+			}
+			any = true;
+			if (b == ' ' || b == '\t' || b == '\r') {
+				ended = length > 0;
+			} else if (!ended) {
+				if (length == line.length) {
+					line = Arrays.copyOf(line, 2 * length);
+				}
+				line[length++] = (byte) b;
+			}
+		}
+		return length;
+	}
+
+	private int read() throws IOException {
+		if (!buffer.hasRemaining() && !refill()) {
+			return -1;
+		}
+		return buffer.get();
+	}
+
+	private boolean refill() throws IOException {
+		if (channel != null) {
+			long size = channel.size();
+			if (mapped >= size) {
+				return false;
+			}
+			long length = Math.min(REGION, size - mapped);
+			buffer = channel.map(MapMode.READ_ONLY, mapped, length);
+			mapped += length;
+			return true;
+		}
+		int read = in.read(buffer.array());
+		if (read < 0) {
+			return false;
+		}
+		buffer.clear();
+		buffer.limit(read);
+		return true;
+	}
+
+	private Integer[][] parse(int length) {
+		return parse(line, length, "Line " + lineNumber);
+	}
+
+	/**
+	 * Parses the cells of one puzzle in the format of this reader.
+	 *
+	 * @param source where the cells come from, for the message of a malformed puzzle
+	 * @throws IllegalArgumentException if the cells are no puzzle
+	 */
+	static Integer[][] parse(byte[] cells, int length, String source) {
+		int size = (int) Math.round(Math.sqrt(length));
+		int boxSize = (int) Math.round(Math.sqrt(size));
+		if (size * size != length || boxSize * boxSize != size) {
+			throw new IllegalArgumentException(source + " has " + length + " cells, which is no square board");
+		}
+		if (boxSize < 1 || boxSize > MAX_BOX_SIZE) {
+			throw new IllegalArgumentException(source + " has " + length + " cells, boards go from 1x1 to "
+					+ MAX_BOX_SIZE * MAX_BOX_SIZE + "x" + MAX_BOX_SIZE * MAX_BOX_SIZE);
+		}
+		Integer[][] values = new Integer[size][size];
+		for (int i = 0; i < length; i++) {
+			char c = (char) cells[i];
+			if (c == '.' || c == '0') {
+				continue;
+			}
+			int value = Character.digit(c, Character.MAX_RADIX);
+			if (value < 1 || value > size) {
+				throw new IllegalArgumentException(source + " has '" + c + "' in cell " + (i + 1) + " of a board of " + size + " digits");
+			}
+			values[i / size][i % size] = value;
+		}
+		return values;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		} else {
+			in.close();
+		}
+	}
+}
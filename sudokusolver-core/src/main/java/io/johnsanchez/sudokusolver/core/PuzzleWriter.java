@@ -0,0 +1,62 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes puzzles or solutions in the one-line format of {@link PuzzleReader}, with <code>.</code> for a blank, through a
+ * buffer of its own. Nothing is written before the buffer fills up or the writer is flushed.
+ */
+public class PuzzleWriter implements Closeable, Flushable {
+
+	private static final int BUFFER = 1 << 16;
+
+	private final OutputStream out;
+	private byte[] line = new byte[0];
+
+	public PuzzleWriter(OutputStream out) {
+		this.out = new BufferedOutputStream(out, BUFFER);
+	}
+
+	public void write(Integer[][] values) throws IOException {
+		int length = values.length * values.length + 1;
+		if (line.length < length) {
+			line = new byte[length];
+		}
+		format(values, line);
+		line[length - 1] = '\n';
+		out.write(line, 0, length);
+	}
+
+	/**
+	 * Formats the cells of one puzzle in the format of this writer, without a line break.
+	 *
+	 * @param cells receives one byte per cell
+	 * @throws IllegalArgumentException if the board is too large for the format, see {@link PuzzleReader#MAX_BOX_SIZE}
+	 */
+	static void format(Integer[][] values, byte[] cells) {
+		int size = values.length;
+		if (size > PuzzleReader.MAX_BOX_SIZE * PuzzleReader.MAX_BOX_SIZE) {
+			throw new IllegalArgumentException("A board of " + size + " digits is too large for the format");
+		}
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				Integer value = values[i][j];
+				cells[i * size + j] = (byte) (value == null ? '.' : Character.toUpperCase(Character.forDigit(value, Character.MAX_RADIX)));
+			}
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
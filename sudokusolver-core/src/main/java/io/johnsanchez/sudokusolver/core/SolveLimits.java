@@ -0,0 +1,73 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When {@link SudokuSolver#solve(SudokuBoard, SolveLimits)} gives up: at a deadline, after a number of steps, once a
+ * {@link CancellationToken} is cancelled or once its thread is interrupted, whichever comes first.
+ * For {@link SolverCore} a step is a pass of the solver, during the search as well, and the limits are checked before
+ * each pass and each guess. For {@link DancingLinksSolver} a step is a node of its search.
+ * <p>
+ * Limits are immutable, each <code>with</code> method returns a copy with one more limit, e.g.
+ * <code>SolveLimits.NONE.withTimeout(5, TimeUnit.MILLISECONDS).withMaxSteps(10000)</code>.
+ */
+public final class SolveLimits {
+
+	/**
+	 * Only the interruption of the solving thread stops the solve.
+	 */
+	public static final SolveLimits NONE = new SolveLimits(false, 0, Long.MAX_VALUE, null);
+
+	private final boolean hasDeadline;
+	private final long deadline;
+	private final long maxSteps;
+	private final CancellationToken token;
+
+	private SolveLimits(boolean hasDeadline, long deadline, long maxSteps, CancellationToken token) {
+		this.hasDeadline = hasDeadline;
+		this.deadline = deadline;
+		this.maxSteps = maxSteps;
+		this.token = token;
+	}
+
+	/**
+	 * @param deadline the time to give up at, as a {@link System#nanoTime()}
+	 */
+	public SolveLimits withDeadline(long deadline) {
+		return new SolveLimits(true, deadline, maxSteps, token);
+	}
+
+	/**
+	 * A deadline <code>timeout</code> from now, so limits with a timeout are made right before the solve.
+	 */
+	public SolveLimits withTimeout(long timeout, TimeUnit unit) {
+		return withDeadline(System.nanoTime() + unit.toNanos(timeout));
+	}
+
+	public SolveLimits withMaxSteps(long maxSteps) {
+		if (maxSteps < 0) {
+			throw new IllegalArgumentException("Negative step limit " + maxSteps);
+		}
+		return new SolveLimits(hasDeadline, deadline, maxSteps, token);
+	}
+
+	public SolveLimits withToken(CancellationToken token) {
+		return new SolveLimits(hasDeadline, deadline, maxSteps, token);
+	}
+
+	boolean hasDeadline() {
+		return hasDeadline;
+	}
+
+	long getDeadline() {
+		return deadline;
+	}
+
+	long getMaxSteps() {
+		return maxSteps;
+	}
+
+	CancellationToken getToken() {
+		return token;
+	}
+}
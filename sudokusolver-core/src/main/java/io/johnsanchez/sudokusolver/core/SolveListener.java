@@ -0,0 +1,49 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * Receives the progress of {@link SolverCore#solve(Integer[][])}. Every method does nothing by default,
+ * see {@link SolverMetrics} for one which counts what the solver does, and {@link ConsoleSolveListener} for a trace of
+ * the board after each step.
+ */
+public interface SolveListener {
+
+	SolveListener NONE = new SolveListener() {
+	};
+
+	default void started(SudokuBoard board) {
+	}
+
+	/**
+	 * Called after a step of a pass solved at least one cell.
+	 * 
+	 * @param step the solving step, e.g. <code>missing</code>, <code>next</code> or <code>brute</code>
+	 * @param value the value the step was solving for, 0 if it solves for all of them
+	 */
+	default void progressed(SudokuBoard board, String step, int value) {
+	}
+
+	default void placed(SudokuCell cell, int value) {
+	}
+
+	/**
+	 * Called after each technique ran, whether or not it changed anything. Nothing is counted for {@link #NONE},
+	 * so a silent solver does not pay for it.
+	 * 
+	 * @param placed the cells it solved
+	 * @param eliminated the possibilities it removed, see {@link SudokuBoard#countEliminated()}
+	 */
+	default void applied(SudokuBoard board, Technique technique, int placed, int eliminated) {
+	}
+
+	default void passFinished(SudokuBoard board) {
+	}
+
+	default void searchFinished(SudokuBoard board, BacktrackingSearch search, boolean found, long nanos) {
+	}
+
+	default void finished(SudokuBoard board) {
+	}
+
+	default void failed(SudokuBoard board, RuntimeException e) {
+	}
+}
@@ -0,0 +1,70 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * How {@link SudokuSolver#solve(SudokuBoard, SolveLimits)} ended, with the board as far as it got.
+ */
+public class SolveResult {
+
+	public enum Status {
+		/**
+		 * Every cell is solved.
+		 */
+		SOLVED,
+		/**
+		 * The passes stopped making progress and the solver may not guess, see {@link Difficulty}.
+		 */
+		STALLED,
+		/**
+		 * The deadline passed or the steps ran out first.
+		 */
+		TIMED_OUT,
+		/**
+		 * The token was cancelled or the thread interrupted first.
+		 */
+		CANCELLED,
+		/**
+		 * The puzzle has no solution, or its givens already clash.
+		 */
+		CONTRADICTION
+	}
+
+	private final Status status;
+	private final SudokuBoard board;
+	private final long steps;
+	private final long nanos;
+
+	SolveResult(Status status, SudokuBoard board, long steps, long nanos) {
+		this.status = status;
+		this.board = board;
+		this.steps = steps;
+		this.nanos = nanos;
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public boolean isSolved() {
+		return status == Status.SOLVED;
+	}
+
+	/**
+	 * @return the board, solved as far as the passes got if the solve gave up during the search
+	 */
+	public SudokuBoard getBoard() {
+		return board;
+	}
+
+	public long getSteps() {
+		return steps;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	@Override
+	public String toString() {
+		return status + " after " + steps + " steps in " + nanos / 1000 + " us";
+	}
+}
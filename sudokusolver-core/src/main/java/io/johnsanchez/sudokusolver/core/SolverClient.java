@@ -0,0 +1,112 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Sends puzzles to a {@link SolverDaemon} over its Unix domain socket, one at a time on one connection.
+ * As a command, it solves the puzzles of one line each from the standard input like {@link App}, without starting a
+ * solver of its own.
+ */
+public class SolverClient implements Closeable {
+
+	private static final String USAGE = "Usage: SolverClient [-s socket] < puzzles.txt";
+
+	private final SocketChannel channel;
+	private final SolverProtocol.Frame response = new SolverProtocol.Frame();
+	private byte[] request = new byte[0];
+
+	public static SolverClient connect(Path socket) throws IOException {
+		return new SolverClient(SocketChannel.open(UnixDomainSocketAddress.of(socket)));
+	}
+
+	private SolverClient(SocketChannel channel) {
+		this.channel = channel;
+	}
+
+	public static void main(String[] args) throws IOException {
+		String socket = SolverDaemon.DEFAULT_SOCKET;
+		if (args.length == 2 && (args[0].equals("-s") || args[0].equals("--socket"))) {
+			socket = args[1];
+		} else if (args.length != 0) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		try (SolverClient client = connect(Paths.get(socket));
+				PuzzleReader reader = new PuzzleReader(System.in);
+				PuzzleWriter writer = new PuzzleWriter(new FileOutputStream(FileDescriptor.out))) {
+			Integer[][] puzzle;
+			while ((puzzle = reader.next()) != null) {
+				Integer[][] solution;
+				try {
+					solution = client.solve(puzzle);
+				} catch (TimedOutException e) {
+					solution = null;
+				}
+				writer.write(solution != null ? solution : puzzle);
+			}
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @return the solution, or <code>null</code> if the puzzle has none
+	 * @throws IllegalArgumentException if the daemon could not read the puzzle
+	 * @throws TimedOutException if the daemon gave up on the puzzle, the connection stays usable
+	 */
+	public Integer[][] solve(Integer[][] values) throws IOException {
+		int length = values.length * values.length;
+		if (request.length < length) {
+			request = new byte[length];
+		}
+		PuzzleWriter.format(values, request);
+		SolverProtocol.write(channel, SolverProtocol.SOLVE, request, length);
+		if (!response.read(channel)) {
+			throw new IOException("The daemon closed the connection");
+		}
+		if (response.type == SolverProtocol.ERROR) {
+			throw new IllegalArgumentException(response.text());
+		}
+		if (response.type == SolverProtocol.TIMED_OUT) {
+			throw new TimedOutException();
+		}
+		return response.type == SolverProtocol.SOLVED ? PuzzleReader.parse(response.array(), response.length(), "The solution") : null;
+	}
+
+	/**
+	 * Checks that the daemon answers, e.g. before sending it puzzles.
+	 */
+	public void ping() throws IOException {
+		SolverProtocol.write(channel, SolverProtocol.PING, request, 0);
+		if (!response.read(channel)) {
+			throw new IOException("The daemon closed the connection");
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * The daemon gave up on a puzzle at its timeout, see {@link SolverDaemon}.
+	 */
+	public static class TimedOutException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		TimedOutException() {
+			super("The daemon gave up on the puzzle");
+		}
+	}
+}
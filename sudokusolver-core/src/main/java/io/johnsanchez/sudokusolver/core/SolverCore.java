@@ -3,278 +3,478 @@
  */
 package io.johnsanchez.sudokusolver.core;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
 
 import io.johnsanchez.sudokusolver.core.SudokuCellGroup.LineMode;
 
 /**
  * @author user
  *
+ * Holds no state of its own and only works on the board it is given, so threads can solve separate boards at once.
  */
-public class SolverCore {
-	
-	public void solveNext(SudokuBoard board, int value) {
-		Set<SudokuCell> cells = board.locate(value);
+public class SolverCore implements SudokuSolver {
 
-		if (cells.size() == 9) {
-			return;
-		}
+	// lines as the kinds of Topology.unitOf, the order of the peers of a cell as well
+	private static final int ROW = 0;
+	private static final int COL = 1;
 
-		List<SudokuCellGroup> unsolvedGroup = new ArrayList<SudokuCellGroup>();
-		SudokuCellGroup[][] groups = board.getGroups();
-		for (int i = 0; i < groups.length; i++) {
-			addToUnsolved(groups[i], value, unsolvedGroup);
-		}
+	private final SolveListener listener;
+	private final StrategyScheduler scheduler;
+	// whether the single steps below pair cells, and whether to search once the strategies stall
+	private final boolean pairs;
+	private final boolean guessing;
 
+	/**
+	 * A silent solver.
+	 */
+	public SolverCore() {
+		this(SolveListener.NONE);
+	}
 
-		solve(unsolvedGroup, value);
-		
-		unsolvedGroup.removeIf(group -> group.has(value));
-		solve(unsolvedGroup, value);
-		
-		unsolvedGroup.clear();
-		addToUnsolved(board.getRows(), value, unsolvedGroup);
-		solve(unsolvedGroup, value);
-		
-		unsolvedGroup.clear();
-		addToUnsolved(board.getCols(), value, unsolvedGroup);
-		solve(unsolvedGroup, value);
+	public SolverCore(SolveListener listener) {
+		this(listener, Difficulty.EXPERT);
 	}
 
-	private void addToUnsolved(SudokuCellGroup[] groups, int value, List<SudokuCellGroup> unsolvedGroup) {
-		for (SudokuCellGroup group : groups) {
-			if (!group.has(value)) {
-				unsolvedGroup.add(group);
-			}
+	/**
+	 * A solver using only the techniques of <code>techniques</code>, see {@link Difficulty}.
+	 * It gives up where they stall, e.g. before searching unless it is {@link Difficulty#EXPERT}.
+	 */
+	public SolverCore(SolveListener listener, Difficulty techniques) {
+		this(listener, new StrategyScheduler(CoreStrategy.of(techniques)), techniques.includes(Difficulty.MEDIUM),
+				techniques.includes(Difficulty.EXPERT));
+	}
+
+	/**
+	 * A solver running the strategies of <code>scheduler</code>, e.g. to order them for throughput on easy puzzles or
+	 * to add some for hard ones, and searching once they stall if <code>guessing</code>.
+	 */
+	public SolverCore(SolveListener listener, StrategyScheduler scheduler, boolean guessing) {
+		this(listener, scheduler, true, guessing);
+	}
+
+	private SolverCore(SolveListener listener, StrategyScheduler scheduler, boolean pairs, boolean guessing) {
+		this.listener = listener;
+		this.scheduler = scheduler;
+		this.pairs = pairs;
+		this.guessing = guessing;
+	}
+
+	public StrategyScheduler getScheduler() {
+		return scheduler;
+	}
+	
+	public void solveNext(SudokuBoard board, int value) {
+		solveNext(board, value, board.allUnits(), pairs, listener);
+	}
+
+	/**
+	 * Like {@link #solveNext(SudokuBoard, int)}, only for the groups in <code>units</code>.
+	 * 
+	 * @param pairs whether to pair the cells of a value with two places left in a group, and to clear a value with two
+	 * or three places left in a group from a line they share
+	 */
+	static void solveNext(SudokuBoard board, int value, long[] units, boolean pairs, SolveListener listener) {
+		if (board.countSolved(value) == board.getSize()) {
+			return;
 		}
+
+		solve(board, units, LineMode.GROUP, value, pairs, listener);
+		solve(board, units, LineMode.GROUP, value, pairs, listener);
+		solve(board, units, LineMode.ROW, value, pairs, listener);
+		solve(board, units, LineMode.COLUMN, value, pairs, listener);
 	}
 
 	/**
 	 * Tries to solve for a group. If a cell has the only possibility to be a <code>value</code>, then it is the value.
 	 * It will also try to reduce the possibility for the following: (2) (1,4) (1,2,4) to 2 (1,4) (1,4) and thereby solving 2 in the process
-	 * @param unsolvedGroup
+	 * @param units the groups to solve, as {@link SudokuCellGroup#getIndex()} bits
+	 * @param mode the kind of groups to solve
 	 * @param value
+	 * @param pairs see {@link #solveNext(SudokuBoard, int, long[], boolean, SolveListener)}
+	 * @param listener told which branch ran, see {@link Technique}
 	 */
-	private void solve(List<SudokuCellGroup> unsolvedGroup, int value) {
+	private static void solve(SudokuBoard board, long[] units, LineMode mode, int value, boolean pairs, SolveListener listener) {
+		boolean counting = listener != SolveListener.NONE;
 		// flag and/or solve
-		unsolvedGroup.forEach(group -> {
-			List<SudokuCell> unsolved = group.getUnsolved();
-			unsolved.removeIf(cell -> !cell.hasPossibility(value));
-			if (unsolved.size() == 1) {
-				SudokuCell cell = unsolved.get(0);
+		for (SudokuCellGroup group : board.getUnits(mode)) {
+			if (!group.isIn(units) || group.has(value)) {
+				continue;
+			}
+			int solved = counting ? board.countSolved() : 0;
+			long eliminated = counting ? board.countEliminated() : 0;
+			Technique technique = null;
+			List<SudokuCell> contents = group.getContents();
+			long positions = group.positionsOf(value);
+			int count = Long.bitCount(positions);
+			if (count == 1) {
+				technique = Technique.SINGLE;
+				SudokuCell cell = contents.get(Long.numberOfTrailingZeros(positions));
 				cell.setValue(value);
-			} else if (unsolved.size() == 2) {
-				SudokuCell cell1 = unsolved.get(0);
-				SudokuCell cell2 = unsolved.get(1);
-
-				Integer commonFlag = getCommonFlag(cell1, cell2, value);
+			} else if (count == 2 && pairs) {
+				technique = Technique.PAIR;
+				SudokuCell cell1 = contents.get(Long.numberOfTrailingZeros(positions));
+				SudokuCell cell2 = contents.get(63 - Long.numberOfLeadingZeros(positions));
 
-				cell1.addFlag(value);
-				cell2.addFlag(value);
+				Integer commonFlag = commonFlag(cell1, cell2, value);
 
-				cell1.addObserver(cell2);
-				cell2.addObserver(cell1);
+				cell1.pair(cell2, value);
 				
 				if (cell1.getRow() == cell2.getRow()) {
-					SudokuCellGroup lineGroup = cell1.getRowGroup();
-					removePossibility(lineGroup, value, cell1, cell2);
+					removePossibility(board, ROW, value, cell1, cell2);
 				}
 				
 				if (cell1.getCol() == cell2.getCol()) {
-					removePossibility(cell1.getColGroup(), value, cell1, cell2);
+					removePossibility(board, COL, value, cell1, cell2);
 				}
 				
 				if (commonFlag != null) {
-					cell1.resetFlag(commonFlag, value);
-					cell2.resetFlag(commonFlag, value);
+					long flags = Candidates.bit(commonFlag) | Candidates.bit(value);
+					cell1.resetFlags(flags);
+					cell2.resetFlags(flags);
 					cell1.setLock(cell2);
 					cell2.setLock(cell1);
 				}
-			} else if (unsolved.size() == 3) {
-				SudokuCell cell1 = unsolved.get(0);
-				SudokuCell cell2 = unsolved.get(1);
-				SudokuCell cell3 = unsolved.get(2);
+			} else if (count == 3 && pairs) {
+				technique = Technique.TRIPLE;
+				long rest = positions;
+				SudokuCell cell1 = contents.get(Long.numberOfTrailingZeros(rest));
+				rest = Candidates.withoutLowest(rest);
+				SudokuCell cell2 = contents.get(Long.numberOfTrailingZeros(rest));
+				rest = Candidates.withoutLowest(rest);
+				SudokuCell cell3 = contents.get(Long.numberOfTrailingZeros(rest));
 				
 				if (cell1.getRow() == cell2.getRow() && cell1.getRow() == cell3.getRow()) {
-					removePossibility(cell1.getRowGroup(), value, cell1, cell2, cell3);
+					removePossibility(board, ROW, value, cell1, cell2, cell3);
 				}
 				
 				if (cell1.getCol() == cell2.getCol() && cell1.getCol() == cell3.getCol()) {
-					removePossibility(cell1.getColGroup(), value, cell1, cell2, cell3);
+					removePossibility(board, COL, value, cell1, cell2, cell3);
 				}
 			}
-		});
+			if (counting && technique != null) {
+				listener.applied(board, technique, board.countSolved() - solved, (int) (board.countEliminated() - eliminated));
+			}
+		}
 	}
 	
-	private void reducePossibility(SudokuBoard board) {
-		reducePossibility(board.getRows());
-		reducePossibility(board.getCols());
+	public void reducePossibility(SudokuBoard board) {
+		reducePossibility(board, board.allUnits());
+	}
+
+	/**
+	 * Like {@link #reducePossibility(SudokuBoard)}, only for the rows and columns in <code>units</code>.
+	 */
+	static void reducePossibility(SudokuBoard board, long[] units) {
+		reducePossibility(board.getRows(), units);
+		reducePossibility(board.getCols(), units);
 	}
 
-	private void reducePossibility(SudokuCellGroup[] groups) {
+	private static void reducePossibility(SudokuCellGroup[] groups, long[] units) {
 		for (SudokuCellGroup group : groups) {
-			reducePossibility(group);
+			if (group.isIn(units)) {
+				reducePossibility(group);
+			}
 		}
 	}
 	
 	// provision to reduce the possibility for a group.
 	// e.g. (1,2) (1,2) (1,2,4) should be -> (1,2) (1,2) (4)
-	private void reducePossibility(SudokuCellGroup group) {
-		List<SudokuCell> unsolved = group.getUnsolved();
-		if (unsolved.size() <= 2) {
-			return;
-		}
-		Map<Integer, List<SudokuCell>> map = new HashMap<>();
-		group.getUnsolvedValues().forEach(value -> map.put(value, new ArrayList<>()));
-		for (SudokuCell cell : unsolved) {
-			if (cell.getPossibilities().size() != 2) {
-				continue;
+	private static void reducePossibility(SudokuCellGroup group) {
+		Subsets.naked(group, 2);
+	}
+
+	/**
+	 * Removes what the naked and then the hidden subsets of 2 to {@value Subsets#MAX_SIZE} cells rule out in the groups in
+	 * <code>units</code>, rows, columns and boxes alike.
+	 */
+	static void reduceSubsets(SudokuBoard board, long[] units, SolveListener listener) {
+		int solved = board.countSolved();
+		long eliminated = board.countEliminated();
+		for (int i = 0; i < 3 * board.getSize(); i++) {
+			SudokuCellGroup group = board.getUnit(i);
+			if (group.isIn(units)) {
+				Subsets.naked(group, Subsets.MAX_SIZE);
 			}
-			cell.getPossibilities().forEach(possibility -> map.get(possibility).add(cell));
 		}
-		
-		Set<Integer> processed = new HashSet<>();
-		for (Entry<Integer, List<SudokuCell>> entry : map.entrySet()) {
-			if (processed.contains(entry.getKey())) {
-				continue;
+		eliminated = applied(board, listener, Technique.NAKED_SUBSET, solved, eliminated);
+		Subsets subsets = board.getSubsets();
+		for (int i = 0; i < 3 * board.getSize(); i++) {
+			SudokuCellGroup group = board.getUnit(i);
+			if (group.isIn(units)) {
+				subsets.hidden(group, Subsets.MAX_SIZE);
 			}
-			
-			if (entry.getValue().size() == 2) {
-				SudokuCell cell1 = entry.getValue().get(0);
-				SudokuCell cell2 = entry.getValue().get(1);
-				if (cell1.getPossibilities().containsAll(cell2.getPossibilities())) {
-					cell1.getPossibilities().forEach(value -> {
-						removePossibility(group, value, cell1, cell2);
-						processed.add(value);
-					});
-				}
-				
-			}
-			
-			processed.add(entry.getKey());
 		}
+		applied(board, listener, Technique.HIDDEN_SUBSET, solved, eliminated);
+	}
+
+	private static void removePossibility(SudokuBoard board, int kind, int value, SudokuCell cell1, SudokuCell cell2) {
+		removePossibility(board, kind, value, cell1, cell2, cell2);
 	}
 
-	private void removePossibility(SudokuCellGroup lineGroup, int value, SudokuCell... cells) {
-		List<SudokuCell> lineUnsolved = new ArrayList<>(lineGroup.getContents());
-		lineUnsolved.removeAll(Arrays.asList(cells));
-		lineUnsolved.forEach(cell -> cell.removePossibility(value));
+	/**
+	 * Removes <code>value</code> from the rest of the row, for {@link #ROW}, or the column, for {@link #COL}, which the
+	 * cells share.
+	 */
+	// no varargs, to not allocate an array for every call
+	private static void removePossibility(SudokuBoard board, int kind, int value, SudokuCell cell1, SudokuCell cell2, SudokuCell cell3) {
+		Topology topology = board.getTopology();
+		int line = board.getSize() - 1;
+		int index = cell1.getIndex();
+		int skip2 = cell2.getIndex();
+		int skip3 = cell3.getIndex();
+		// the peers of cell1 along the line, which leave out cell1 itself
+		for (int k = kind * line; k < (kind + 1) * line; k++) {
+			int peer = topology.peer(index, k);
+			if (peer != skip2 && peer != skip3) {
+				board.getCell(peer).removePossibility(value);
+			}
+		}
 	}
 	
 	public void solveBrutefully(SudokuBoard board) {
 		for (SudokuCell cell : board.getUnsolved()) {
-			if (cell.getPossibilities().size() == 1) {
-				cell.setValue(cell.getPossibilities().iterator().next());
+			solveBrutefully(cell);
+		}
+	}
+
+	/**
+	 * Like {@link #solveBrutefully(SudokuBoard)}, only for the cells of the rows in <code>units</code>.
+	 * Every cell with a single possibility left has had its row changed.
+	 */
+	static void solveBrutefully(SudokuBoard board, long[] units) {
+		for (SudokuCellGroup row : board.getRows()) {
+			if (row.isIn(units)) {
+				for (SudokuCell cell : row.getContents()) {
+					solveBrutefully(cell);
+				}
 			}
 		}
 	}
+
+	private static void solveBrutefully(SudokuCell cell) {
+		if (cell.getValue() == null && cell.countPossibilities() == 1) {
+			cell.setValue(Candidates.lowest(cell.getPossibilityMask()));
+		}
+	}
 	
-	public void solveBrutefully(SudokuCellGroup[] line, LineMode lineMode) {
-		for (SudokuCellGroup group : Arrays.asList(line)) {
-			group.getUnsolvedValues().forEach(value -> {
-				List<SudokuCell> unsolved = group.getUnsolved();
-				unsolved.removeIf(cell -> !cell.hasPossibility(value));
-				if (unsolved.size() == 1) {
-					SudokuCell cell = unsolved.get(0);
-					System.out.println("Setting " + value + " (" + cell.getRow() + ", " + cell.getCol() + ")");
+	/**
+	 * Sets every value with a single place left in one of the groups of <code>line</code>.
+	 */
+	public void solveBrutefully(SudokuCellGroup[] line) {
+		solveBrutefully(line, line[0].getBoard().allUnits(), listener);
+	}
+
+	/**
+	 * Like {@link #solveBrutefully(SudokuCellGroup[])}, only for the groups in <code>units</code>.
+	 */
+	static void solveBrutefully(SudokuCellGroup[] line, long[] units, SolveListener listener) {
+		for (SudokuCellGroup group : line) {
+			if (!group.isIn(units)) {
+				continue;
+			}
+			for (long values = group.getUnsolvedValueMask(); values != 0; values = Candidates.withoutLowest(values)) {
+				int value = Candidates.lowest(values);
+				long positions = group.positionsOf(value);
+				if (Long.bitCount(positions) == 1) {
+					SudokuCell cell = group.getContents().get(Long.numberOfTrailingZeros(positions));
+					listener.placed(cell, value);
 					cell.setValue(value);
 				}
-			});
+			}
 		}
 	}
 
 	public void solveMissing(SudokuBoard board) {
-		for (SudokuCellGroup sudokuCellGroup : board.getRows()) {
-			solveMissing(sudokuCellGroup);
-		}
-		for (SudokuCellGroup sudokuCellGroup : board.getCols()) {
-			solveMissing(sudokuCellGroup);
-		}
-		for (int i = 0; i < board.getGroups().length; i++) {
-			for (int j = 0; j < board.getGroups()[i].length; j++) {
-				solveMissing(board.getGroups()[i][j]);
+		solveMissing(board, board.allUnits());
+	}
+
+	static void solveMissing(SudokuBoard board, long[] units) {
+		for (int i = 0; i < 3 * board.getSize(); i++) {
+			SudokuCellGroup group = board.getUnit(i);
+			if (group.isIn(units)) {
+				missing(group);
 			}
 		}
 	}
 
 	public void solveMissing(SudokuCellGroup group) {		
-		if (group.getUnsolvedValues().size() == 1 && !group.getUnsolved().isEmpty()) {
-			group.getUnsolved().get(0).setValue(group.getUnsolvedValues().iterator().next());
-		}
+		missing(group);
 	}
 
-	public Integer getCommonFlag(SudokuCell cell1, SudokuCell cell2, Integer value) {
-		for (Integer flag : cell1.getFlags()) {
-			if (flag == value) {
-				continue;
-			}
-			if (cell2.hasFlag(flag)) {
-				return flag;
+	private static void missing(SudokuCellGroup group) {
+		long unsolvedValues = group.getUnsolvedValueMask();
+		if (Candidates.count(unsolvedValues) == 1) {
+			SudokuCell cell = group.firstUnsolved();
+			if (cell != null) {
+				cell.setValue(Candidates.lowest(unsolvedValues));
 			}
 		}
-		return null;
 	}
 
+	private static Integer commonFlag(SudokuCell cell1, SudokuCell cell2, Integer value) {
+		long common = cell1.getPartnerFlags(cell2) & cell1.getFlagMask() & cell2.getFlagMask() & ~Candidates.bit(value);
+		return common == Candidates.NONE ? null : Candidates.lowest(common);
+	}
+
+	/**
+	 * Solves the puzzle with the solver passes, and searches the rest once they stall.
+	 * If the puzzle has no solution, the board is returned as far as the passes got.
+	 */
+	@Override
 	public SudokuBoard solve(Integer[][] values) {
-		SudokuBoard board = new SudokuBoard();
-		board.setValues(values);
-		board.logFlags();
+		return solve(new SudokuBoard(SudokuBoard.boxSizeOf(values.length)), values);
+	}
+
+	@Override
+	public SudokuBoard solve(SudokuBoard board, Integer[][] values) {
+		board.load(values);
+		return solve(board);
+	}
+
+	/**
+	 * Solves a board whose givens are already set, e.g. by {@link PackedPuzzleReader#load(long, SudokuBoard)}.
+	 */
+	public SudokuBoard solve(SudokuBoard board) {
+		return solve(board, Budget.NONE);
+	}
+
+	/**
+	 * Like {@link #solve(Integer[][])}, giving up once one of the <code>limits</code> is reached.
+	 */
+	public SolveResult solve(Integer[][] values, SolveLimits limits) {
+		SudokuBoard board = new SudokuBoard(SudokuBoard.boxSizeOf(values.length));
 		try {
-			int solved = board.countSolved();
-			int counter = 0;
-			while (counter < 5) {			
-				int currSolved = board.countSolved();
-				solveMissing(board);
-				currSolved = logIfMore(board, currSolved, "After missing");
-				for (int i = 1; i <=9; i++) {
-					solveNext(board, i);
-					currSolved = logIfMore(board, currSolved, "After next " + i);
-				}
-				
-				solveBrutefully(board);
-				currSolved = logIfMore(board, currSolved, "After brute");
-				
-				reducePossibility(board);
-				
-//				solveBrutefully(board.getRows(), LineMode.ROW);
-//				currSolved = logIfMore(board, currSolved, "After brute (ROW)");
-//				
-//				solveBrutefully(board.getCols(), LineMode.COLUMN);
-//				currSolved = logIfMore(board, currSolved, "After brute (COL)");
-				
-				if (solved == currSolved) {
-					counter++;
-				} else if (currSolved == 81) {
-					break;
-				} else {
-					counter = 0;
-				}
-				System.out.println("Looping");
-				solved = currSolved;
+			board.load(values);
+		} catch (ContradictionException e) {
+			return new SolveResult(SolveResult.Status.CONTRADICTION, board, 0, 0);
+		}
+		return solve(board, limits);
+	}
+
+	/**
+	 * Like {@link #solve(SudokuBoard)}, giving up once one of the <code>limits</code> is reached. The thread stays
+	 * interrupted if it was, and a puzzle without a solution is a result rather than a {@link ContradictionException}.
+	 * A search given up leaves the board as the passes left it.
+	 */
+	@Override
+	public SolveResult solve(SudokuBoard board, SolveLimits limits) {
+		long start = System.nanoTime();
+		Budget budget = new Budget(limits);
+		SolveResult.Status status;
+		try {
+			solve(board, budget);
+			if (board.countSolved() == board.getCellCount()) {
+				status = SolveResult.Status.SOLVED;
+			} else {
+				status = guessing ? SolveResult.Status.CONTRADICTION : SolveResult.Status.STALLED;
+			}
+		} catch (Budget.Exhausted e) {
+			status = e.getStatus();
+		} catch (ContradictionException e) {
+			status = SolveResult.Status.CONTRADICTION;
+		}
+		return new SolveResult(status, board, budget.getSteps(), System.nanoTime() - start);
+	}
+
+	private SudokuBoard solve(SudokuBoard board, Budget budget) {
+		SolverEvents.Solve event = new SolverEvents.Solve();
+		event.begin();
+		int givens = board.countSolved();
+		int passes = 0;
+		listener.started(board);
+		try {
+			passes = propagate(board, listener, budget);
+			
+			if (guessing && board.countSolved() < board.getCellCount()) {
+				long start = System.nanoTime();
+				int solved = board.countSolved();
+				long eliminated = board.countEliminated();
+				BacktrackingSearch search = new BacktrackingSearch(this, budget);
+				boolean found = search.search(board);
+				applied(board, listener, Technique.SEARCH, solved, eliminated);
+				listener.searchFinished(board, search, found, System.nanoTime() - start);
 			}
 	
-			System.out.println("After all");
-			board.logFlags();
+			listener.finished(board);
+		} catch (Budget.Exhausted e) {
+			// a limit reached, which the SolveResult reports
+			throw e;
 		} catch (RuntimeException e) {
-			System.err.println("ERROR");
-			board.logFlags();
+			listener.failed(board, e);
 			throw e;
+		} finally {
+			if (event.shouldCommit()) {
+				event.solved = board.countSolved() == board.getCellCount();
+				event.commit(board, givens, passes);
+			}
 		}
 		return board;
 	}
 
-	private int logIfMore(SudokuBoard board, int currSolved, String message) {
+	/**
+	 * Counts the solutions of a puzzle with the solver passes and the search, stopping as soon as <code>limit</code> are found.
+	 * 
+	 * @return the number of solutions, 0 if the puzzle has none and at most <code>limit</code>
+	 */
+	public int countSolutions(Integer[][] values, int limit) {
+		return countSolutions(new SudokuBoard(SudokuBoard.boxSizeOf(values.length)), values, limit);
+	}
+
+	/**
+	 * Like {@link #countSolutions(Integer[][], int)} on a reused board, which is left as far as the passes got.
+	 */
+	public int countSolutions(SudokuBoard board, Integer[][] values, int limit) {
+		try {
+			board.load(values);
+			propagate(board, SolveListener.NONE);
+		} catch (ContradictionException e) {
+			return 0;
+		}
+		return new BacktrackingSearch(this).count(board, limit);
+	}
+
+	/**
+	 * @return true if the puzzle has exactly one solution, which stops counting at the second one
+	 */
+	public boolean hasUniqueSolution(Integer[][] values) {
+		return countSolutions(values, 2) == 1;
+	}
+
+	/**
+	 * Runs the strategies until the board is solved or reaches a fixed point, see {@link StrategyScheduler}.
+	 * 
+	 * @return the number of passes
+	 */
+	int propagate(SudokuBoard board, SolveListener listener) {
+		return propagate(board, listener, Budget.NONE);
+	}
+
+	/**
+	 * Like {@link #propagate(SudokuBoard, SolveListener)}, taking a step of <code>budget</code> before each strategy.
+	 * 
+	 * @throws Budget.Exhausted once it ran out
+	 */
+	int propagate(SudokuBoard board, SolveListener listener, Budget budget) {
+		return scheduler.run(board, listener, budget);
+	}
+
+	/**
+	 * Tells the listener what <code>technique</code> did since the board had <code>solved</code> cells and
+	 * <code>eliminated</code> possibilities removed.
+	 * 
+	 * @return the possibilities removed by now
+	 */
+	static long applied(SudokuBoard board, SolveListener listener, Technique technique, int solved, long eliminated) {
+		long now = board.countEliminated();
+		if (listener != SolveListener.NONE) {
+			listener.applied(board, technique, board.countSolved() - solved, (int) (now - eliminated));
+		}
+		return now;
+	}
+
+	static int notifyIfMore(SudokuBoard board, SolveListener listener, int currSolved, String step, int value) {
 		if (board.countSolved() > currSolved) {
-			System.out.println(message);
-			board.logFlags();					
+			listener.progressed(board, step, value);
 		}
 		currSolved = board.countSolved();
 		return currSolved;
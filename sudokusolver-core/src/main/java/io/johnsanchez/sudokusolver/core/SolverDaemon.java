@@ -0,0 +1,231 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a warmed up solver and its boards in a long-lived JVM, and solves the puzzles sent by {@link SolverClient}s over a
+ * Unix domain socket, see {@link SolverProtocol}. Each connection is served on a thread of its own, a virtual one where
+ * the runtime has them. Each request is given up after a timeout, so no puzzle holds its connection for long.
+ */
+public class SolverDaemon implements Closeable {
+
+	static final String DEFAULT_SOCKET = System.getProperty("java.io.tmpdir") + "/sudokusolver.sock";
+	private static final String USAGE = "Usage: SolverDaemon [-e core|dancing_links] [-s socket] [-d timeout_ms] [-m]";
+	// puzzles solved before the socket opens, enough for the JIT to compile the passes and the search
+	private static final int WARM_UP = 200;
+	static final long DEFAULT_TIMEOUT_MILLIS = 1000;
+
+	private final Path socket;
+	private final SudokuSolver solver;
+	private final long timeoutNanos;
+	private final ServerSocketChannel server;
+	private final ExecutorService connections = newConnectionExecutor();
+	// idle boards by box size, taken by one request at a time
+	private final List<Queue<SudokuBoard>> boards = new ArrayList<>();
+	private final Thread acceptor;
+
+	/**
+	 * Warms up the solver and starts accepting connections on <code>socket</code>, replacing a stale socket file.
+	 */
+	public SolverDaemon(Path socket, SolverEngine engine) throws IOException {
+		this(socket, engine, SolveListener.NONE);
+	}
+
+	/**
+	 * @param listener told about the solves, the warm-up included
+	 */
+	public SolverDaemon(Path socket, SolverEngine engine, SolveListener listener) throws IOException {
+		this(socket, engine, listener, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param timeout how long a request may take before it is answered {@link SolverProtocol#TIMED_OUT}
+	 */
+	public SolverDaemon(Path socket, SolverEngine engine, SolveListener listener, long timeout, TimeUnit unit) throws IOException {
+		this.socket = socket;
+		this.solver = engine.newSolver(listener);
+		this.timeoutNanos = unit.toNanos(timeout);
+		for (int boxSize = 0; boxSize <= SudokuBoard.MAX_BOX_SIZE; boxSize++) {
+			boards.add(new ConcurrentLinkedQueue<>());
+		}
+		warmUp();
+
+		Files.deleteIfExists(socket);
+		server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		server.bind(UnixDomainSocketAddress.of(socket));
+		acceptor = new Thread(this::accept, "solver-daemon");
+		acceptor.start();
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		SolverEngine engine = SolverEngine.CORE;
+		String socket = DEFAULT_SOCKET;
+		long timeout = DEFAULT_TIMEOUT_MILLIS;
+		SolverMetrics metrics = null;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-e") || args[i].equals("--engine")) {
+					engine = SolverEngine.valueOf(args[++i].toUpperCase());
+				} else if (args[i].equals("-s") || args[i].equals("--socket")) {
+					socket = args[++i];
+				} else if (args[i].equals("-d") || args[i].equals("--timeout")) {
+					timeout = Long.parseLong(args[++i]);
+				} else if (args[i].equals("-m") || args[i].equals("--metrics")) {
+					metrics = new SolverMetrics();
+				} else {
+					throw new IllegalArgumentException("Unknown option " + args[i]);
+				}
+			}
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		SolverDaemon daemon = new SolverDaemon(Paths.get(socket), engine, metrics != null ? metrics : SolveListener.NONE, timeout,
+				TimeUnit.MILLISECONDS);
+		if (metrics != null) {
+			// only the puzzles of the clients
+			metrics.reset();
+			metrics.register("SolverDaemon");
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				daemon.close();
+			} catch (IOException e) {
+				System.err.println("Could not remove " + daemon.getSocket() + ": " + e.getMessage());
+			}
+		}));
+		System.err.println("Solving with " + engine + " on " + socket);
+		daemon.acceptor.join();
+	}
+
+	/**
+	 * One virtual thread per task where the runtime has them (Java 21), otherwise a cached pool of daemon threads.
+	 */
+	static ExecutorService newConnectionExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(task -> {
+				Thread thread = new Thread(task, "solver-connection");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	private void warmUp() {
+		List<Integer[][]> puzzles = new PuzzleGenerator(1).generate(Difficulty.EASY, WARM_UP / 2);
+		for (int i = 0; i < WARM_UP; i++) {
+			SudokuBoard board = borrow(3);
+			// the empty board warms up the search as well
+			solver.solve(board, i % 2 == 0 ? puzzles.get(i / 2) : new Integer[9][9]);
+			boards.get(3).offer(board);
+		}
+	}
+
+	private void accept() {
+		while (server.isOpen()) {
+			try {
+				SocketChannel channel = server.accept();
+				try {
+					connections.execute(() -> serve(channel));
+				} catch (RejectedExecutionException e) {
+					// accepted while the daemon closed
+					channel.close();
+					return;
+				}
+			} catch (ClosedChannelException e) {
+				return;
+			} catch (IOException e) {
+				System.err.println("Could not accept a connection: " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Answers the requests of one connection until the client closes it.
+	 */
+	private void serve(SocketChannel channel) {
+		try (channel) {
+			SolverProtocol.Frame request = new SolverProtocol.Frame();
+			byte[] solution = new byte[SolverProtocol.MAX_BODY];
+			while (request.read(channel)) {
+				if (request.type == SolverProtocol.PING) {
+					SolverProtocol.write(channel, SolverProtocol.SOLVED, solution, 0);
+				} else if (request.type == SolverProtocol.SOLVE) {
+					solve(channel, request, solution);
+				} else {
+					SolverProtocol.write(channel, SolverProtocol.ERROR, "Unknown request " + request.type);
+				}
+			}
+		} catch (IOException e) {
+			// the client went away, nothing to answer
+		}
+	}
+
+	/**
+	 * Answers a request which fails with {@link SolverProtocol#ERROR}, so that it leaves the connection usable.
+	 */
+	private void solve(SocketChannel channel, SolverProtocol.Frame request, byte[] solution) throws IOException {
+		SudokuBoard board = null;
+		try {
+			Integer[][] values = PuzzleReader.parse(request.array(), request.length(), "The puzzle");
+			board = borrow(SudokuBoard.boxSizeOf(values.length));
+			board.load(values);
+			SolveResult result = solver.solve(board, SolveLimits.NONE.withTimeout(timeoutNanos, TimeUnit.NANOSECONDS));
+			if (result.getStatus() == SolveResult.Status.SOLVED) {
+				PuzzleWriter.format(board.getContentValues(), solution);
+				SolverProtocol.write(channel, SolverProtocol.SOLVED, solution, request.length());
+			} else if (result.getStatus() == SolveResult.Status.TIMED_OUT || result.getStatus() == SolveResult.Status.CANCELLED) {
+				SolverProtocol.write(channel, SolverProtocol.TIMED_OUT, request.array(), request.length());
+			} else {
+				SolverProtocol.write(channel, SolverProtocol.NO_SOLUTION, request.array(), request.length());
+			}
+		} catch (ContradictionException e) {
+			SolverProtocol.write(channel, SolverProtocol.NO_SOLUTION, request.array(), request.length());
+		} catch (RuntimeException e) {
+			SolverProtocol.write(channel, SolverProtocol.ERROR, e.getMessage() != null ? e.getMessage() : e.toString());
+		} finally {
+			if (board != null) {
+				boards.get(board.getBoxSize()).offer(board);
+			}
+		}
+	}
+
+	private SudokuBoard borrow(int boxSize) {
+		SudokuBoard board = boards.get(boxSize).poll();
+		return board != null ? board : new SudokuBoard(boxSize);
+	}
+
+	public Path getSocket() {
+		return socket;
+	}
+
+	/**
+	 * Stops accepting connections and removes the socket file. Connections already open are served until they close.
+	 */
+	@Override
+	public void close() throws IOException {
+		server.close();
+		connections.shutdown();
+		Files.deleteIfExists(socket);
+	}
+}
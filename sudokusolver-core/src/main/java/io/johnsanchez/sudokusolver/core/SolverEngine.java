@@ -0,0 +1,41 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * The available {@link SudokuSolver}s.
+ */
+public enum SolverEngine {
+
+	/**
+	 * Solving techniques from {@link SolverCore}, with a backtracking search once they stall.
+	 */
+	CORE {
+		@Override
+		public SudokuSolver newSolver(SolveListener listener) {
+			return new SolverCore(listener);
+		}
+	},
+
+	/**
+	 * Exact cover search from {@link DancingLinksSolver}, fastest on sparse or adversarial puzzles.
+	 * It has no passes to report, so it ignores a listener.
+	 */
+	DANCING_LINKS {
+		@Override
+		public SudokuSolver newSolver(SolveListener listener) {
+			return new DancingLinksSolver();
+		}
+	};
+
+	public SudokuSolver newSolver() {
+		return newSolver(SolveListener.NONE);
+	}
+
+	/**
+	 * A solver reporting its progress to <code>listener</code>, e.g. {@link SolverMetrics}.
+	 */
+	public abstract SudokuSolver newSolver(SolveListener listener);
+
+	public SudokuBoard solve(Integer[][] values) {
+		return newSolver().solve(values);
+	}
+}
@@ -0,0 +1,114 @@
+package io.johnsanchez.sudokusolver.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder events around the phases of a solve, e.g. to find in a recording of a slow batch which phase of which
+ * puzzle took the time. Each is timed with <code>begin()</code> and committed only if <code>shouldCommit()</code>, so they
+ * cost next to nothing while no recording is running.
+ * <p>
+ * Only phases over a threshold are recorded by default, the whole solve from 1 ms and its phases from 100 us. A recording
+ * settings file with a threshold of 0 ms records every one of them.
+ */
+final class SolverEvents {
+
+	static final String PREFIX = "io.johnsanchez.sudokusolver.";
+
+	private SolverEvents() {
+	}
+
+	/**
+	 * What every phase reports.
+	 */
+	@Category("Sudoku Solver")
+	@StackTrace(false)
+	abstract static class Phase extends Event {
+
+		@Label("Puzzle Id")
+		@Description("A hash of the givens, see SudokuBoard.getPuzzleId()")
+		long puzzleId;
+
+		@Label("Cells Solved")
+		@Description("Cells solved during the phase")
+		int cellsSolved;
+
+		@Label("Sweeps")
+		@Description("Passes of the solver during the phase, 0 for a strategy within a pass")
+		int sweeps;
+
+		/**
+		 * Fills in the fields and commits, once the phase ended on <code>board</code> since it had <code>solved</code> cells.
+		 */
+		void commit(SudokuBoard board, int solved, int sweeps) {
+			this.puzzleId = board.getPuzzleId();
+			this.cellsSolved = board.countSolved() - solved;
+			this.sweeps = sweeps;
+			commit();
+		}
+	}
+
+	@Name(PREFIX + "BoardCreated")
+	@Label("Board Created")
+	@Threshold("100 us")
+	static class BoardCreated extends Phase {
+
+		@Label("Box Size")
+		int boxSize;
+	}
+
+	@Name(PREFIX + "SetValues")
+	@Label("Set Values")
+	@Threshold("100 us")
+	static class SetValues extends Phase {
+	}
+
+	@Name(PREFIX + "SolveNext")
+	@Label("Solve Next")
+	@Description("SolverCore.solveNext for one value")
+	@Threshold("100 us")
+	static class SolveNext extends Phase {
+
+		@Label("Value")
+		int value;
+	}
+
+	@Name(PREFIX + "ReducePossibility")
+	@Label("Reduce Possibility")
+	@Threshold("100 us")
+	static class ReducePossibility extends Phase {
+	}
+
+	@Name(PREFIX + "SearchBranch")
+	@Label("Search Branch")
+	@Description("A guess of the backtracking search and the passes propagating it, not the branches below it")
+	@Threshold("100 us")
+	static class SearchBranch extends Phase {
+
+		@Label("Row")
+		int row;
+
+		@Label("Column")
+		int col;
+
+		@Label("Value")
+		int value;
+
+		@Label("Contradiction")
+		boolean contradiction;
+	}
+
+	@Name(PREFIX + "Solve")
+	@Label("Solve")
+	@Threshold("1 ms")
+	static class Solve extends Phase {
+
+		@Label("Solved")
+		boolean solved;
+	}
+}
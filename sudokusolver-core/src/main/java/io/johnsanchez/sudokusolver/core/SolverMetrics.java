@@ -0,0 +1,203 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts what the solvers using it do, see {@link SolverCore#SolverCore(SolveListener)}: placements and eliminations by
+ * {@link Technique}, and per puzzle the time it took, the passes it needed and whether they stalled.
+ * One instance may be shared by the solvers of every thread, and {@link #register(String)} shows it through JMX.
+ * <p>
+ * A solver without it, i.e. with {@link SolveListener#NONE}, counts nothing at all.
+ */
+public class SolverMetrics implements SolveListener, SolverMetricsMXBean {
+
+	public static final String DOMAIN = "io.johnsanchez.sudokusolver";
+	private static final int TIME_BUCKETS = 24;
+	private static final int SWEEP_BUCKETS = 32;
+
+	private final LongAdder puzzles = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder stalls = new LongAdder();
+	private final LongAdder sweeps = new LongAdder();
+	private final LongAdder solveNanos = new LongAdder();
+	private final LongAccumulator maxSolveNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder[] placements = adders(Technique.values().length);
+	private final LongAdder[] eliminations = adders(Technique.values().length);
+	private final LongAdder[] solveTimes = adders(TIME_BUCKETS);
+	private final LongAdder[] sweepCounts = adders(SWEEP_BUCKETS);
+	// the puzzle each thread is solving: its start, its passes and 1 once they stalled
+	private final ThreadLocal<long[]> current = ThreadLocal.withInitial(() -> new long[3]);
+
+	private static LongAdder[] adders(int count) {
+		LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server as <code>io.johnsanchez.sudokusolver:type=SolverMetrics,name=</code><code>name</code>.
+	 */
+	public ObjectName register(String name) {
+		try {
+			ObjectName objectName = new ObjectName(DOMAIN + ":type=SolverMetrics,name=" + ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+			return objectName;
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot register the solver metrics as " + name, e);
+		}
+	}
+
+	public static void unregister(ObjectName name) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot unregister " + name, e);
+		}
+	}
+
+	@Override
+	public void started(SudokuBoard board) {
+		long[] puzzle = current.get();
+		puzzle[0] = System.nanoTime();
+		puzzle[1] = 0;
+		puzzle[2] = 0;
+	}
+
+	@Override
+	public void applied(SudokuBoard board, Technique technique, int placed, int eliminated) {
+		if (placed != 0) {
+			placements[technique.ordinal()].add(placed);
+		}
+		if (eliminated != 0) {
+			eliminations[technique.ordinal()].add(eliminated);
+		}
+	}
+
+	@Override
+	public void passFinished(SudokuBoard board) {
+		current.get()[1]++;
+	}
+
+	@Override
+	public void searchFinished(SudokuBoard board, BacktrackingSearch search, boolean found, long nanos) {
+		current.get()[2] = 1;
+	}
+
+	@Override
+	public void finished(SudokuBoard board) {
+		long[] puzzle = current.get();
+		if (board.countSolved() < board.getCellCount()) {
+			puzzle[2] = 1;
+		}
+		record(puzzle);
+	}
+
+	@Override
+	public void failed(SudokuBoard board, RuntimeException e) {
+		failures.increment();
+		record(current.get());
+	}
+
+	private void record(long[] puzzle) {
+		long nanos = System.nanoTime() - puzzle[0];
+		puzzles.increment();
+		stalls.add(puzzle[2]);
+		sweeps.add(puzzle[1]);
+		solveNanos.add(nanos);
+		maxSolveNanos.accumulate(nanos);
+		long micros = nanos / 1000;
+		solveTimes[Math.min(64 - Long.numberOfLeadingZeros(micros), TIME_BUCKETS - 1)].increment();
+		sweepCounts[(int) Math.min(puzzle[1], SWEEP_BUCKETS - 1)].increment();
+	}
+
+	@Override
+	public long getPuzzles() {
+		return puzzles.sum();
+	}
+
+	@Override
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	@Override
+	public long getStalls() {
+		return stalls.sum();
+	}
+
+	@Override
+	public long getSweeps() {
+		return sweeps.sum();
+	}
+
+	@Override
+	public long getTotalSolveNanos() {
+		return solveNanos.sum();
+	}
+
+	@Override
+	public long getMaxSolveNanos() {
+		return maxSolveNanos.get();
+	}
+
+	@Override
+	public Map<String, Long> getPlacements() {
+		return byTechnique(placements);
+	}
+
+	@Override
+	public Map<String, Long> getEliminations() {
+		return byTechnique(eliminations);
+	}
+
+	private static Map<String, Long> byTechnique(LongAdder[] counts) {
+		Map<String, Long> map = new LinkedHashMap<>();
+		for (Technique technique : Technique.values()) {
+			map.put(technique.name(), counts[technique.ordinal()].sum());
+		}
+		return map;
+	}
+
+	@Override
+	public long[] getSolveTimeHistogram() {
+		return sums(solveTimes);
+	}
+
+	@Override
+	public long[] getSweepHistogram() {
+		return sums(sweepCounts);
+	}
+
+	private static long[] sums(LongAdder[] counts) {
+		long[] sums = new long[counts.length];
+		for (int i = 0; i < counts.length; i++) {
+			sums[i] = counts[i].sum();
+		}
+		return sums;
+	}
+
+	/**
+	 * Starts counting over. Solves running meanwhile may be counted partly before and partly after it.
+	 */
+	@Override
+	public void reset() {
+		for (LongAdder adder : new LongAdder[] { puzzles, failures, stalls, sweeps, solveNanos }) {
+			adder.reset();
+		}
+		maxSolveNanos.reset();
+		for (LongAdder[] counts : new LongAdder[][] { placements, eliminations, solveTimes, sweepCounts }) {
+			for (LongAdder adder : counts) {
+				adder.reset();
+			}
+		}
+	}
+}
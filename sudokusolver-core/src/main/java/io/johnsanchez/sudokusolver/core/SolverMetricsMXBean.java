@@ -0,0 +1,47 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.Map;
+
+/**
+ * What {@link SolverMetrics} shows through JMX, e.g. in JConsole under <code>io.johnsanchez.sudokusolver</code>.
+ */
+public interface SolverMetricsMXBean {
+
+	long getPuzzles();
+
+	long getFailures();
+
+	/**
+	 * @return the puzzles the solver passes could not finish, which were searched or given up on
+	 */
+	long getStalls();
+
+	long getSweeps();
+
+	long getTotalSolveNanos();
+
+	long getMaxSolveNanos();
+
+	/**
+	 * @return the cells solved by each {@link Technique}
+	 */
+	Map<String, Long> getPlacements();
+
+	/**
+	 * @return the possibilities removed by each {@link Technique}
+	 */
+	Map<String, Long> getEliminations();
+
+	/**
+	 * @return the solves by time: element i counts those under 2^i microseconds and at least half that, the last one
+	 * counts all the slower ones
+	 */
+	long[] getSolveTimeHistogram();
+
+	/**
+	 * @return the solves by passes of the solver: element i counts those with i passes, the last one those with at least as many
+	 */
+	long[] getSweepHistogram();
+
+	void reset();
+}
@@ -0,0 +1,100 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The frames between {@link SolverClient} and {@link SolverDaemon}: the length of the rest of the frame as an
+ * <code>int</code>, a type byte, and a body of up to {@value #MAX_BODY} bytes.
+ * <p>
+ * A request is {@link #SOLVE} with a puzzle in the one-line format of {@link PuzzleReader}, or {@link #PING} without a
+ * body. The response is {@link #SOLVED} with the solution in the same format, {@link #NO_SOLUTION} or
+ * {@link #TIMED_OUT} with the puzzle as it was given, or {@link #ERROR} with a message, e.g. for a puzzle which is no board
+ * of {@link PuzzleReader}. A connection carries any number of requests, each answered in turn.
+ */
+final class SolverProtocol {
+
+	static final byte SOLVE = 1;
+	static final byte PING = 2;
+
+	static final byte SOLVED = 0;
+	static final byte NO_SOLUTION = 1;
+	static final byte ERROR = 2;
+	static final byte TIMED_OUT = 3;
+
+	// a 25x25 board has 625 cells, a larger one is still read so that it can be answered with an error
+	static final int MAX_BODY = 1 << 13;
+
+	private SolverProtocol() {
+	}
+
+	/**
+	 * A frame read from a channel, reusing its buffer for the next one.
+	 */
+	static class Frame {
+
+		private final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + 1);
+		private final ByteBuffer body = ByteBuffer.allocate(MAX_BODY);
+		byte type;
+
+		/**
+		 * @return false if the channel was closed before a new frame
+		 * @throws IOException if it was closed within a frame, or the frame is too long
+		 */
+		boolean read(SocketChannel channel) throws IOException {
+			header.clear();
+			if (!readFully(channel, header, true)) {
+				return false;
+			}
+			int length = header.getInt(0) - 1;
+			if (length < 0 || length > MAX_BODY) {
+				throw new IOException("Frame of " + length + " bytes");
+			}
+			type = header.get(Integer.BYTES);
+			body.clear();
+			body.limit(length);
+			readFully(channel, body, false);
+			return true;
+		}
+
+		byte[] array() {
+			return body.array();
+		}
+
+		int length() {
+			return body.limit();
+		}
+
+		String text() {
+			return new String(body.array(), 0, body.limit(), StandardCharsets.UTF_8);
+		}
+
+		private static boolean readFully(SocketChannel channel, ByteBuffer buffer, boolean atStart) throws IOException {
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					if (atStart && buffer.position() == 0) {
+						return false;
+					}
+					throw new EOFException("Connection closed within a frame");
+				}
+			}
+			return true;
+		}
+	}
+
+	static void write(SocketChannel channel, byte type, byte[] body, int length) throws IOException {
+		ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + 1 + length);
+		frame.putInt(length + 1).put(type).put(body, 0, length).flip();
+		while (frame.hasRemaining()) {
+			channel.write(frame);
+		}
+	}
+
+	static void write(SocketChannel channel, byte type, String message) throws IOException {
+		byte[] body = message.getBytes(StandardCharsets.UTF_8);
+		write(channel, type, body, Math.min(body.length, MAX_BODY));
+	}
+}
@@ -0,0 +1,23 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * A technique run by a {@link StrategyScheduler}, see {@link CoreStrategy} for those of {@link SolverCore}.
+ * A strategy only works on the board it is given, so one may be shared by the solvers of every thread.
+ */
+public interface SolvingStrategy {
+
+	/**
+	 * @return the name of the strategy in the statistics of the scheduler
+	 */
+	String getName();
+
+	/**
+	 * Places values or removes possibilities on <code>board</code>, only looking at the groups in <code>units</code>,
+	 * see {@link SudokuCellGroup#isIn(long[])}. Both go through the cells, which tell the board what changed.
+	 *
+	 * @param listener to tell of the progress, see {@link SolveListener#progressed(SudokuBoard, String, int)} and
+	 * {@link SolveListener#applied(SudokuBoard, Technique, int, int)}
+	 * @throws ContradictionException if the board turns out to have no solution
+	 */
+	void apply(SudokuBoard board, long[] units, SolveListener listener);
+}
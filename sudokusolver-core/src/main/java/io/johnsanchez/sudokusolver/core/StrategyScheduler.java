@@ -0,0 +1,190 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs {@link SolvingStrategy strategies} in the order given, which should be cheapest first, until the board is solved
+ * or none of them changes it any more. As soon as one changes the board, the next pass starts over from the first one,
+ * so a costly strategy only runs once the cheaper ones stalled. Each strategy then looks at every group changed since it
+ * last ran.
+ * <p>
+ * A scheduler keeps no state of a solve, so the solvers of every thread may share one. With statistics, it times every
+ * strategy and counts what it did, at the cost of reading the clock around each one.
+ */
+public class StrategyScheduler {
+
+	private final SolvingStrategy[] strategies;
+	private final Statistics[] statistics;
+
+	public StrategyScheduler(List<? extends SolvingStrategy> strategies) {
+		this(strategies, false);
+	}
+
+	/**
+	 * @param statistics whether to keep the {@link #getStatistics()}
+	 */
+	public StrategyScheduler(List<? extends SolvingStrategy> strategies, boolean statistics) {
+		if (strategies.isEmpty()) {
+			throw new IllegalArgumentException("No strategy to run");
+		}
+		this.strategies = strategies.toArray(new SolvingStrategy[0]);
+		if (statistics) {
+			this.statistics = new Statistics[this.strategies.length];
+			for (int i = 0; i < this.strategies.length; i++) {
+				this.statistics[i] = new Statistics(this.strategies[i].getName());
+			}
+		} else {
+			this.statistics = null;
+		}
+	}
+
+	public List<SolvingStrategy> getStrategies() {
+		return List.of(strategies);
+	}
+
+	/**
+	 * @return what each strategy did so far, in the order they run, or an empty list without statistics
+	 */
+	public List<Statistics> getStatistics() {
+		return statistics == null ? List.of() : List.of(statistics);
+	}
+
+	/**
+	 * Runs the strategies on <code>board</code> until it is solved or reaches a fixed point, taking a step of
+	 * <code>budget</code> before each pass.
+	 *
+	 * @return the number of passes
+	 * @throws Budget.Exhausted once the budget ran out
+	 */
+	int run(SudokuBoard board, SolveListener listener, Budget budget) {
+		// the groups changed since each strategy last ran
+		long[][] pending = new long[strategies.length][];
+		int passes = 0;
+		long[] units;
+		while (board.countSolved() < board.getCellCount() && (units = board.takeChangedUnits()) != null) {
+			budget.step();
+			passes++;
+			for (int i = 0; i < strategies.length; i++) {
+				if (pending[i] == null) {
+					pending[i] = units.clone();
+				} else {
+					for (int w = 0; w < units.length; w++) {
+						pending[i][w] |= units[w];
+					}
+				}
+			}
+			for (int i = 0; i < strategies.length; i++) {
+				if (statistics == null) {
+					strategies[i].apply(board, pending[i], listener);
+				} else {
+					apply(i, board, listener, pending[i]);
+				}
+				clear(pending[i]);
+				if (board.hasChanges() || board.countSolved() == board.getCellCount()) {
+					break;
+				}
+			}
+			listener.passFinished(board);
+		}
+		return passes;
+	}
+
+	private void apply(int i, SudokuBoard board, SolveListener listener, long[] units) {
+		int solved = board.countSolved();
+		long eliminated = board.countEliminated();
+		long start = System.nanoTime();
+		try {
+			strategies[i].apply(board, units, listener);
+		} finally {
+			statistics[i].applied(System.nanoTime() - start, board.countSolved() - solved, board.countEliminated() - eliminated);
+		}
+	}
+
+	private static void clear(long[] units) {
+		for (int w = 0; w < units.length; w++) {
+			units[w] = 0;
+		}
+	}
+
+	@Override
+	public String toString() {
+		List<String> names = new ArrayList<>();
+		for (SolvingStrategy strategy : strategies) {
+			names.add(strategy.getName());
+		}
+		return "StrategyScheduler" + names;
+	}
+
+	/**
+	 * What one strategy did over every solve of the scheduler, updated as they run.
+	 */
+	public static final class Statistics {
+
+		private final String name;
+		private final LongAdder applications = new LongAdder();
+		private final LongAdder progressed = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder placed = new LongAdder();
+		private final LongAdder eliminated = new LongAdder();
+
+		Statistics(String name) {
+			this.name = name;
+		}
+
+		void applied(long nanos, int placed, long eliminated) {
+			applications.increment();
+			this.nanos.add(nanos);
+			if (placed != 0 || eliminated != 0) {
+				progressed.increment();
+				this.placed.add(placed);
+				this.eliminated.add(eliminated);
+			}
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the times the strategy ran
+		 */
+		public long getApplications() {
+			return applications.sum();
+		}
+
+		/**
+		 * @return the times it placed a value or removed a possibility
+		 */
+		public long getProgressed() {
+			return progressed.sum();
+		}
+
+		public long getNanos() {
+			return nanos.sum();
+		}
+
+		public long getPlaced() {
+			return placed.sum();
+		}
+
+		public long getEliminated() {
+			return eliminated.sum();
+		}
+
+		/**
+		 * @return the average time it took to place a value or remove a possibility, the cost the order should follow
+		 */
+		public double getNanosPerChange() {
+			long changes = getPlaced() + getEliminated();
+			return changes == 0 ? Double.POSITIVE_INFINITY : (double) getNanos() / changes;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d runs (%d progressed), %d placed, %d eliminated, %.1f us", name, getApplications(),
+					getProgressed(), getPlaced(), getEliminated(), getNanos() / 1e3);
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the naked and hidden subsets of a group by enumerating masks, without building any collection.
+ * <p>
+ * A naked subset is <code>k</code> unsolved cells with only <code>k</code> possibilities between them: those values go
+ * nowhere else in the group. A hidden subset is <code>k</code> values with only <code>k</code> places left in the group:
+ * those cells can be nothing else. A naked subset of <code>k</code> of the <code>n</code> unsolved cells comes with a hidden
+ * one of the other <code>n - k</code> cells, which rules out the same. So a hidden subset is only looked for where its
+ * naked one is too large, and sizes up to 4 find every subset of a group of 9.
+ * <p>
+ * Each board has its own, see {@link SudokuBoard#getSubsets()}, so that the hidden subsets reuse one array of places.
+ */
+final class Subsets {
+
+	static final int MAX_SIZE = 4;
+
+	// the places left for each value in the group being searched, by value
+	private final long[] positions;
+
+	Subsets(int size) {
+		positions = new long[size + 1];
+	}
+
+	/**
+	 * Removes what the naked subsets of 2 to <code>maxSize</code> cells of <code>group</code> rule out.
+	 */
+	static void naked(SudokuCellGroup group, int maxSize) {
+		List<SudokuCell> contents = group.getContents();
+		long unsolved = 0;
+		for (int i = 0; i < contents.size(); i++) {
+			if (contents.get(i).getValue() == null) {
+				unsolved |= 1L << i;
+			}
+		}
+		for (int size = 2; size <= maxSize && size < Long.bitCount(unsolved); size++) {
+			naked(contents, unsolved, unsolved, size, 0L, Candidates.NONE);
+		}
+	}
+
+	/**
+	 * Adds to the <code>cells</code> picked so far every way to pick the rest of <code>size</code> from <code>rest</code>,
+	 * as long as they have at most <code>size</code> possibilities between them.
+	 */
+	private static void naked(List<SudokuCell> contents, long unsolved, long rest, int size, long cells, long values) {
+		int picked = Long.bitCount(cells);
+		for (; Long.bitCount(rest) >= size - picked; rest = Candidates.withoutLowest(rest)) {
+			int i = Long.numberOfTrailingZeros(rest);
+			SudokuCell cell = contents.get(i);
+			if (cell.getValue() != null) {
+				continue;
+			}
+			long union = values | cell.getPossibilityMask();
+			if (Candidates.count(union) > size) {
+				continue;
+			}
+			if (picked + 1 < size) {
+				naked(contents, unsolved, Candidates.withoutLowest(rest), size, cells | 1L << i, union);
+			} else if (Candidates.count(union) == size) {
+				for (long others = unsolved & ~(cells | 1L << i); others != 0; others = Candidates.withoutLowest(others)) {
+					SudokuCell other = contents.get(Long.numberOfTrailingZeros(others));
+					for (long removed = other.getPossibilityMask() & union; removed != 0; removed = Candidates.withoutLowest(removed)) {
+						other.removePossibility(Candidates.lowest(removed));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes what the hidden subsets of 2 to <code>maxSize</code> values of <code>group</code> rule out, leaving those whose
+	 * naked subset is at most <code>maxSize</code> cells to {@link #naked(SudokuCellGroup, int)}.
+	 */
+	void hidden(SudokuCellGroup group, int maxSize) {
+		long values = group.getUnsolvedValueMask();
+		if (Candidates.count(values) - 2 <= maxSize) {
+			return;
+		}
+		// the places left for each value, as group.positionsOf(value) would find them one cell at a time
+		List<SudokuCell> contents = group.getContents();
+		Arrays.fill(positions, 0L);
+		for (int i = 0; i < contents.size(); i++) {
+			SudokuCell cell = contents.get(i);
+			if (cell.getValue() == null) {
+				for (long rest = cell.getPossibilityMask(); rest != 0; rest = Candidates.withoutLowest(rest)) {
+					positions[Candidates.lowest(rest)] |= 1L << i;
+				}
+			}
+		}
+		for (int size = 2; size <= maxSize && Candidates.count(values) - size > maxSize; size++) {
+			hidden(contents, positions, values, size, Candidates.NONE, 0L);
+		}
+	}
+
+	/**
+	 * Like {@link #naked(List, long, long, int, long, long)} for the values of <code>rest</code>, as long as they have at
+	 * most <code>size</code> places between them.
+	 */
+	private static void hidden(List<SudokuCell> contents, long[] places, long rest, int size, long values, long positions) {
+		int picked = Candidates.count(values);
+		for (; Candidates.count(rest) >= size - picked; rest = Candidates.withoutLowest(rest)) {
+			int value = Candidates.lowest(rest);
+			long union = positions | places[value];
+			if (Long.bitCount(union) > size) {
+				continue;
+			}
+			if (picked + 1 < size) {
+				hidden(contents, places, Candidates.withoutLowest(rest), size, values | Candidates.bit(value), union);
+			} else if (Long.bitCount(union) == size) {
+				long subset = values | Candidates.bit(value);
+				for (long cells = union; cells != 0; cells = Candidates.withoutLowest(cells)) {
+					SudokuCell cell = contents.get(Long.numberOfTrailingZeros(cells));
+					for (long removed = cell.getPossibilityMask() & ~subset; removed != 0; removed = Candidates.withoutLowest(removed)) {
+						cell.removePossibility(Candidates.lowest(removed));
+					}
+				}
+			}
+		}
+	}
+}
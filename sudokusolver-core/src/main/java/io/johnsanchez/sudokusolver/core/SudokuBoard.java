@@ -1,15 +1,17 @@
 package io.johnsanchez.sudokusolver.core;
 
-import java.util.HashMap;
+import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
 import java.util.Set;
 
 import io.johnsanchez.sudokusolver.core.SudokuCellGroup.LineMode;
 
-public class SudokuBoard implements Observer {
+/**
+ * A board with its cells and groups. Not thread safe, but boards share no mutable state
+ * so separate boards can be solved concurrently.
+ */
+public class SudokuBoard {
 
 	/*
 	 * Solving patterns:
@@ -19,51 +21,226 @@ public class SudokuBoard implements Observer {
 	 * 4. 
 	 * 
 	 */
-	private final SudokuCell[][] contents = new SudokuCell[9][9];
+	/**
+	 * The largest box size whose digits still fit the candidate masks, see {@link Candidates}.
+	 */
+	public static final int MAX_BOX_SIZE = 8;
+
+	private final int boxSize;
+	private final int size;
+	private final Topology topology;
+	private final SudokuCell[][] contents;
+	// the same cells by SudokuCell.getIndex()
+	private final SudokuCell[] cells;
 	
-	private final Set<SudokuCell> unsolved = new HashSet<>();
-	private final Set<SudokuCell> solved = new HashSet<>();
+	private int solved;
+	// possibilities removed from unsolved cells so far, only ever growing
+	private long eliminated;
+	// see getPuzzleId(), 0 until asked for after the givens changed
+	private long puzzleId;
+	// the changes to undo, recorded from the first mark() on, see Trail
+	private Trail trail;
+	private boolean trailing;
+	// number of cells solved with each value
+	private final int[] located;
+	// per value and line, the unsolved cells of the line which can still be the value: at value * size + row the
+	// columns, and at value * size + col the rows
+	private final long[] rowPositions;
+	private final long[] colPositions;
 	
-	private final Map<Integer, Set<SudokuCell>> locator = new HashMap<Integer, Set<SudokuCell>>();
+	private final SudokuCellGroup[] rows;
+	private final SudokuCellGroup[] cols;
+	private final SudokuCellGroup[][] groups;
+	// every group by SudokuCellGroup.getIndex(): the rows, then the columns, then the groups
+	private final SudokuCellGroup[] units;
+	private final SudokuCellGroup[] boxes;
 	
-	private final SudokuCellGroup[] rows = new SudokuCellGroup[9];
-	private final SudokuCellGroup[] cols = new SudokuCellGroup[9];
-	private final SudokuCellGroup[][] groups = new SudokuCellGroup[3][3];
+	private final Propagator propagator = new Propagator();
+	private final Subsets subsets;
+	// groups with a cell that changed since the last pass, as SudokuCellGroup.getIndex() bits
+	private final long[] changedUnits;
+	private final long[] takenUnits;
+	private final long[] allUnits;
 	
+	/**
+	 * A classic 9x9 board.
+	 */
 	public SudokuBoard() {
+		this(3);
+	}
+
+	/**
+	 * A board of boxSize² x boxSize² cells taking the digits 1..boxSize², e.g. 4 for 16x16 and 5 for 25x25.
+	 */
+	public SudokuBoard(int boxSize) {
+		if (boxSize < 1 || boxSize > MAX_BOX_SIZE) {
+			throw new IllegalArgumentException("Box size " + boxSize + " is not between 1 and " + MAX_BOX_SIZE);
+		}
+		SolverEvents.BoardCreated event = new SolverEvents.BoardCreated();
+		event.begin();
+		this.boxSize = boxSize;
+		this.size = boxSize * boxSize;
+		this.topology = Topology.of(boxSize);
+		contents = new SudokuCell[size][size];
+		cells = new SudokuCell[size * size];
+		located = new int[size + 1];
+		rowPositions = new long[(size + 1) * size];
+		colPositions = new long[(size + 1) * size];
+		rows = new SudokuCellGroup[size];
+		cols = new SudokuCellGroup[size];
+		groups = new SudokuCellGroup[boxSize][boxSize];
+		units = new SudokuCellGroup[3 * size];
+		boxes = new SudokuCellGroup[size];
+		subsets = new Subsets(size);
 		
 		for (int i = 0; i < rows.length; i++) {
 			rows[i] = new SudokuCellGroup(this, LineMode.ROW, i, null);
 			cols[i] = new SudokuCellGroup(this, LineMode.COLUMN, null, i);
 			
-			int row = i/3;
-			int col = i%3;
+			int row = i/boxSize;
+			int col = i%boxSize;
 			groups[row][col] = new SudokuCellGroup(this, LineMode.GROUP, row, col);
+			boxes[i] = groups[row][col];
+			units[rows[i].getIndex()] = rows[i];
+			units[cols[i].getIndex()] = cols[i];
+			units[boxes[i].getIndex()] = boxes[i];
 		}
 		
 		// init board
 		for (int i = 0; i < contents.length; i++) {
 			for (int j = 0; j < contents[i].length; j++) {
-				contents[i][j] = new SudokuCell(i, j);
-				rows[i].addContent(contents[i][j]);
-				cols[j].addContent(contents[i][j]);
-				groups[i/3][j/3].addContent(contents[i][j]);
-				unsolved.add(contents[i][j]);
-				contents[i][j].addObserver(this);
+				contents[i][j] = new SudokuCell(i, j, boxSize);
+				cells[contents[i][j].getIndex()] = contents[i][j];
+			}
+		}
+		for (int u = 0; u < units.length; u++) {
+			for (int k = 0; k < size; k++) {
+				units[u].addContent(cells[topology.cellOf(u, k)]);
 			}
 		}
 		
-		for (int i = 1; i <= 9; i++) {
-			locator.put(i, new HashSet<SudokuCell>());
+		int words = (units.length + Long.SIZE - 1) / Long.SIZE;
+		changedUnits = new long[words];
+		takenUnits = new long[words];
+		allUnits = new long[words];
+		for (int i = 0; i < units.length; i++) {
+			allUnits[i >>> 6] |= 1L << i;
+		}
+		System.arraycopy(allUnits, 0, changedUnits, 0, words);
+		locatePositions();
+		if (event.shouldCommit()) {
+			event.boxSize = boxSize;
+			event.commit(this, 0, 0);
+		}
+	}
+
+	/**
+	 * @return a new board with the values, the givens and the possibilities of this one, but no flags, locks or partners
+	 */
+	public SudokuBoard copy() {
+		SudokuBoard copy = new SudokuBoard(boxSize);
+		copy.restoreState(saveState());
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				copy.contents[i][j].setGiven(contents[i][j].isGiven());
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * The whole state of the cells of a board, see {@link SudokuBoard#snapshot()}: per cell the possibilities, the flags,
+	 * and the value, whether it is given and its lock, then each pair of partners with the flags they share.
+	 * It is immutable, so it is kept and shared as is.
+	 */
+	public static final class Snapshot {
+
+		private final int boxSize;
+		private final long[] state;
+
+		private Snapshot(int boxSize, long[] state) {
+			this.boxSize = boxSize;
+			this.state = state;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Snapshot && ((Snapshot) obj).boxSize == boxSize && Arrays.equals(((Snapshot) obj).state, state);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(state);
 		}
 	}
+
+	/**
+	 * @return the box size of a board with <code>size</code> rows
+	 * @throws IllegalArgumentException if <code>size</code> is not a square
+	 */
+	public static int boxSizeOf(int size) {
+		int boxSize = (int) Math.round(Math.sqrt(size));
+		if (boxSize * boxSize != size) {
+			throw new IllegalArgumentException("A board of " + size + " rows has no square boxes");
+		}
+		return boxSize;
+	}
+
+	/**
+	 * Empties the board, so that it can be reused for another puzzle without building a new one.
+	 */
+	public void reset() {
+		clearTrail();
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				contents[i][j].reset();
+			}
+		}
+		puzzleId = 0;
+		recount();
+	}
+
+	/**
+	 * Resets the board and sets the givens of another puzzle.
+	 */
+	public void load(Integer[][] values) {
+		if (values.length != size) {
+			throw new IllegalArgumentException("Expected " + size + " rows but got " + values.length);
+		}
+		reset();
+		setValues(values);
+	}
+
+	/**
+	 * Like {@link #load(Integer[][])} followed by a solve, for a puzzle whose <code>solution</code> is already known.
+	 */
+	void loadSolved(Integer[][] values, Integer[][] solution) {
+		if (values.length != size) {
+			throw new IllegalArgumentException("Expected " + size + " rows but got " + values.length);
+		}
+		int cells = size * size;
+		long[] state = new long[2 * cells];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				state[i * size + j] = Candidates.bit(solution[i][j]);
+				state[cells + i * size + j] = solution[i][j];
+				contents[i][j].setGiven(values[i][j] != null);
+			}
+		}
+		puzzleId = 0;
+		restoreState(state);
+	}
 	
 	public void setValue(Integer value, int rowIndex, int colIndex) {
 		contents[rowIndex][colIndex].setValue(value);
 		contents[rowIndex][colIndex].setGiven(true);
+		puzzleId = 0;
 	}
 	
 	public void setValues(Integer[][] values) {
+		SolverEvents.SetValues event = new SolverEvents.SetValues();
+		event.begin();
+		int givens = solved;
 		for (int i = 0; i < values.length; i++) {
 			for (int j = 0; j < values[i].length; j++) {
 				if (values[i][j] != null) {
@@ -71,22 +248,415 @@ public class SudokuBoard implements Observer {
 				}
 			}
 		}
+		if (event.shouldCommit()) {
+			event.commit(this, givens, 0);
+		}
+	}
+
+	/**
+	 * @return a hash of the givens, the same for the same puzzle on any board and 0 for a board without givens.
+	 * It tells the puzzles apart in the {@link SolverEvents} of a recording.
+	 */
+	public long getPuzzleId() {
+		if (puzzleId == 0) {
+			// FNV-1a over the position and the value of each given
+			long hash = 0xcbf29ce484222325L;
+			boolean any = false;
+			for (int i = 0; i < size; i++) {
+				for (int j = 0; j < size; j++) {
+					SudokuCell cell = contents[i][j];
+					if (cell.isGiven() && cell.getValue() != null) {
+						hash = (hash ^ (i * size + j)) * 0x100000001b3L;
+						hash = (hash ^ cell.getValue()) * 0x100000001b3L;
+						any = true;
+					}
+				}
+			}
+			puzzleId = any ? hash : 0;
+		}
+		return puzzleId;
+	}
+
+	void assigned(SudokuCell cell) {
+		located[cell.getValue()]++;
+		solved++;
+	}
+
+	void unassigned(SudokuCell cell) {
+		located[cell.getValue()]--;
+		solved--;
+	}
+
+	void eliminated(int count) {
+		eliminated += count;
+	}
+
+	/**
+	 * Moves the positions of <code>cell</code> from the values of <code>before</code> to those of <code>after</code>,
+	 * its possibilities while unsolved and none once solved.
+	 */
+	void positionsChanged(SudokuCell cell, long before, long after) {
+		int row = cell.getRow();
+		int col = cell.getCol();
+		for (long changed = before ^ after; changed != 0; changed = Candidates.withoutLowest(changed)) {
+			int value = Candidates.lowest(changed);
+			rowPositions[value * size + row] ^= 1L << col;
+			colPositions[value * size + col] ^= 1L << row;
+		}
 	}
 
-	public void update(Observable o, Object arg) {
-		if (o instanceof SudokuCell) {
-			SudokuCell sudokuCell = (SudokuCell) o;
-			if (sudokuCell.getValue() != null) {
-				locator.get(sudokuCell.getValue()).add(sudokuCell);
-				
-				unsolved.remove(sudokuCell);
-				solved.add(sudokuCell);
+	private void locatePositions() {
+		for (int i = 0; i < rowPositions.length; i++) {
+			rowPositions[i] = 0;
+			colPositions[i] = 0;
+		}
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				positionsChanged(contents[i][j], Candidates.NONE, contents[i][j].getOpenMask());
 			}
 		}
 	}
+
+	/**
+	 * @return the columns of the unsolved cells of <code>row</code> which can still be <code>value</code>, kept up to
+	 * date as the cells change
+	 */
+	public long getRowPositions(int value, int row) {
+		return rowPositions[value * size + row];
+	}
+
+	/**
+	 * @return the rows of the unsolved cells of <code>col</code> which can still be <code>value</code>
+	 */
+	public long getColPositions(int value, int col) {
+		return colPositions[value * size + col];
+	}
+
+	/**
+	 * @return the positions in the box of the <code>band</code>th row of boxes and the <code>stack</code>th column of them
+	 * of the unsolved cells which can still be <code>value</code>, in the order of its {@link SudokuCellGroup#getContents()}
+	 */
+	long getBoxPositions(int value, int band, int stack) {
+		long positions = 0;
+		long inBox = Candidates.all(boxSize);
+		for (int i = 0; i < boxSize; i++) {
+			positions |= (rowPositions[value * size + band * boxSize + i] >>> stack * boxSize & inBox) << i * boxSize;
+		}
+		return positions;
+	}
+
+	void changed(SudokuCell cell) {
+		mark(cell.getRowGroup().getIndex());
+		mark(cell.getColGroup().getIndex());
+		mark(cell.getGroup().getIndex());
+	}
+
+	private void mark(int index) {
+		changedUnits[index >>> 6] |= 1L << index;
+	}
+
+	/**
+	 * @return the groups changed since the last call as {@link SudokuCellGroup#getIndex()} bits, see {@link SudokuCellGroup#isIn(long[])},
+	 * or <code>null</code> if none changed. The array is reused by the next call.
+	 */
+	public long[] takeChangedUnits() {
+		long any = 0;
+		for (int i = 0; i < changedUnits.length; i++) {
+			takenUnits[i] = changedUnits[i];
+			any |= changedUnits[i];
+			changedUnits[i] = 0;
+		}
+		return any == 0 ? null : takenUnits;
+	}
+
+	/**
+	 * @return whether a group changed since the last {@link #takeChangedUnits()}, leaving the changes to it
+	 */
+	public boolean hasChanges() {
+		for (long word : changedUnits) {
+			if (word != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return every group, as {@link #takeChangedUnits()} would after a reset
+	 */
+	long[] allUnits() {
+		return allUnits;
+	}
+
+	/**
+	 * @return the group with the given {@link SudokuCellGroup#getIndex()}
+	 */
+	public SudokuCellGroup getUnit(int index) {
+		return units[index];
+	}
+
+	/**
+	 * @return the rows, the columns or the groups, the latter row by row
+	 */
+	public SudokuCellGroup[] getUnits(LineMode mode) {
+		return mode == LineMode.ROW ? rows : mode == LineMode.COLUMN ? cols : boxes;
+	}
+
+	Propagator getPropagator() {
+		return propagator;
+	}
+
+	Subsets getSubsets() {
+		return subsets;
+	}
+	
+	/**
+	 * @return the possibilities of every cell, row by row, followed by their values (0 for none)
+	 */
+	long[] saveState() {
+		int cells = size * size;
+		long[] state = new long[2 * cells];
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				SudokuCell cell = contents[i][j];
+				state[i * size + j] = cell.getPossibilityMask();
+				state[cells + i * size + j] = cell.getValue() == null ? 0 : cell.getValue();
+			}
+		}
+		return state;
+	}
+	
+	/**
+	 * Puts every cell back to a state from {@link #saveState()}. Flags, locks and partners are dropped,
+	 * they will be found again by the next pass of the solver.
+	 */
+	void restoreState(long[] state) {
+		clearTrail();
+		int cells = size * size;
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				int value = (int) state[cells + i * size + j];
+				contents[i][j].restore(value == 0 ? null : value, state[i * size + j]);
+			}
+		}
+		recount();
+	}
+
+	/**
+	 * @return the whole state of the cells, to {@link #restore(Snapshot)} this board or another of the same size to it
+	 */
+	public Snapshot snapshot() {
+		int cells = size * size;
+		int links = 0;
+		for (SudokuCell[] row : contents) {
+			for (SudokuCell cell : row) {
+				links += cell.countPartners();
+			}
+		}
+		// each pair of partners once, as two longs
+		long[] state = new long[3 * cells + links];
+		int next = 3 * cells;
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				SudokuCell cell = contents[i][j];
+				int index = i * size + j;
+				SudokuCell lock = cell.getLock();
+				state[3 * index] = cell.getPossibilityMask();
+				state[3 * index + 1] = cell.getFlagMask();
+				state[3 * index + 2] = (cell.getValue() == null ? 0 : cell.getValue()) | (cell.isGiven() ? 1L << 8 : 0)
+						| (lock == null ? 0 : lock.getRow() * size + lock.getCol() + 1L) << 9;
+				for (int k = 0; k < cell.countPartners(); k++) {
+					SudokuCell partner = cell.getPartner(k);
+					int other = partner.getRow() * size + partner.getCol();
+					if (index < other) {
+						state[next++] = (long) index << 32 | other;
+						state[next++] = cell.getPartnerFlagsAt(k);
+					}
+				}
+			}
+		}
+		return new Snapshot(boxSize, state);
+	}
+
+	/**
+	 * Puts every cell back to <code>snapshot</code>, flags, locks and partners included, and marks every group as changed.
+	 * The trail is cleared, see {@link #mark()}.
+	 */
+	public void restore(Snapshot snapshot) {
+		if (snapshot.boxSize != boxSize) {
+			throw new IllegalArgumentException("Expected a snapshot of box size " + boxSize + " but got " + snapshot.boxSize);
+		}
+		clearTrail();
+		long[] state = snapshot.state;
+		int cells = size * size;
+		for (int index = 0; index < cells; index++) {
+			long meta = state[3 * index + 2];
+			int value = (int) (meta & 0xFF);
+			int lock = (int) (meta >>> 9) - 1;
+			contents[index / size][index % size].restore(value == 0 ? null : value, state[3 * index], state[3 * index + 1],
+					lock < 0 ? null : contents[lock / size][lock % size], (meta & 1L << 8) != 0);
+		}
+		for (int next = 3 * cells; next < state.length; next += 2) {
+			SudokuCell cell = getCell((int) (state[next] >>> 32));
+			SudokuCell partner = getCell((int) state[next]);
+			cell.restorePartner(partner, state[next + 1]);
+			partner.restorePartner(cell, state[next + 1]);
+		}
+		puzzleId = 0;
+		recount();
+	}
+
+	/**
+	 * @return the cell with the given {@link SudokuCell#getIndex()}
+	 */
+	SudokuCell getCell(int index) {
+		return cells[index];
+	}
+
+	Topology getTopology() {
+		return topology;
+	}
+
+	/**
+	 * Starts recording the changes to the cells, unless it already does, so that everything changed after it can be
+	 * undone with {@link #undo(int)}: values, possibilities, flags, locks and partners. Marks nest, and the recording
+	 * goes on until {@link #clearTrail()}.
+	 * <p>
+	 * Resetting or loading the board, or restoring a snapshot, clear the trail. A search of the solver undoes its guesses
+	 * to marks of its own and leaves the marks made before it on the trail.
+	 * 
+	 * @return the mark to undo to
+	 */
+	public int mark() {
+		if (trail == null) {
+			trail = new Trail();
+		}
+		trailing = true;
+		return trail.size();
+	}
+
+	/**
+	 * Undoes every change made since <code>mark</code>, newest first, and marks the groups of the cells it changes for
+	 * the next pass of the solver. Later marks are gone, <code>mark</code> itself may be undone to again.
+	 * 
+	 * @throws IllegalStateException if the trail was cleared since
+	 */
+	public void undo(int mark) {
+		if (!trailing || mark < 0 || mark > trail.size()) {
+			throw new IllegalStateException("Mark " + mark + " is not on the trail anymore");
+		}
+		trail.undo(mark);
+	}
+
+	/**
+	 * Keeps every change and stops recording them until the next {@link #mark()}.
+	 */
+	public void clearTrail() {
+		trailing = false;
+		if (trail != null) {
+			trail.clear();
+		}
+	}
+
+	Trail getTrail() {
+		return trailing ? trail : null;
+	}
+
+	/**
+	 * Rebuilds the groups and the counts from the values of the cells, and marks every group as changed.
+	 */
+	private void recount() {
+		for (SudokuCellGroup unit : units) {
+			unit.recount();
+		}
+		locatePositions();
+		System.arraycopy(allUnits, 0, changedUnits, 0, allUnits.length);
+		solved = 0;
+		for (int i = 0; i < located.length; i++) {
+			located[i] = 0;
+		}
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				SudokuCell cell = contents[i][j];
+				if (cell.getValue() != null) {
+					solved++;
+					located[cell.getValue()]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the unsolved cell with the fewest possibilities, or <code>null</code> if the board is solved
+	 */
+	public SudokuCell mostConstrained() {
+		SudokuCell best = null;
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				SudokuCell cell = contents[i][j];
+				if (cell.getValue() == null && (best == null || cell.countPossibilities() < best.countPossibilities())) {
+					best = cell;
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return false if a cell has run out of possibilities or a group has no place left for a missing value
+	 */
+	public boolean isConsistent() {
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				if (contents[i][j].getValue() == null && contents[i][j].countPossibilities() == 0) {
+					return false;
+				}
+			}
+		}
+		for (SudokuCellGroup unit : units) {
+			if (!unit.isConsistent()) {
+				return false;
+			}
+		}
+		return true;
+	}
 	
 	public Set<SudokuCell> locate(int value) {
-		return locator.get(value);
+		Set<SudokuCell> cells = new HashSet<>();
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				if (Integer.valueOf(value).equals(contents[i][j].getValue())) {
+					cells.add(contents[i][j]);
+				}
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * @return the number of cells solved with <code>value</code>
+	 */
+	public int countSolved(int value) {
+		return located[value];
+	}
+
+	/**
+	 * @return the number of rows, columns and digits, 9 for a classic board
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	public int getBoxSize() {
+		return boxSize;
+	}
+
+	public int getCellCount() {
+		return size * size;
+	}
+
+	public SudokuCell getCell(int rowIndex, int colIndex) {
+		return contents[rowIndex][colIndex];
 	}
 
 	public SudokuCellGroup[][] getGroups() {
@@ -102,11 +672,15 @@ public class SudokuBoard implements Observer {
 	}
 	
 	public int countSolved() {
-		int counter = 0;
-		for (Set<SudokuCell> cells : locator.values()) {
-			counter += cells.size();
-		}
-		return counter;
+		return solved;
+	}
+
+	/**
+	 * @return the possibilities removed from cells of this board since it was created, see
+	 * {@link SudokuCell#removePossibility(int)}. It is never reset, so only the difference between two calls counts.
+	 */
+	public long countEliminated() {
+		return eliminated;
 	}
 	
 	public Integer[][] getContentValues() {
@@ -120,15 +694,19 @@ public class SudokuBoard implements Observer {
 		return out;
 	}
 	
-	public void log() {
+	/**
+	 * Prints the values of the board, a blank for an unsolved cell.
+	 */
+	public void log(PrintStream out) {
 		Integer[][] content = getContentValues();
+		String cell = "%" + String.valueOf(size).length() + "s ";
 		for (int i = 0; i < content.length; i++) {
 			for (int j = 0; j < content[i].length; j++) {
-				System.out.print((content[i][j] == null ? " " : content[i][j]) + " ");
+				out.print(String.format(cell, content[i][j] == null ? " " : content[i][j]));
 			}
-			System.out.println();
+			out.println();
 		}
-		System.out.println("------------------------ Rem: " + (81-countSolved()));
+		out.println("------------------------ Rem: " + (getCellCount()-countSolved()));
 	}
 	
 	public static final String ANSI_RESET = "\u001B[0m";
@@ -141,34 +719,46 @@ public class SudokuBoard implements Observer {
 	public static final String ANSI_CYAN = "\u001B[36m";
 	public static final String ANSI_WHITE = "\u001B[37m";
 	
-	public void logFlags() {
+	/**
+	 * Prints the board in color: the solved cells, green unless given, and the flags of the unsolved ones in red.
+	 */
+	public void logFlags(PrintStream out) {
 		for (int i = 0; i < contents.length; i++) {
 			for (int j = 0; j < contents[i].length; j++) {
 				if (contents[i][j].getValue() == null) {
-					if (contents[i][j].getFlags().size() <= 2 && !contents[i][j].getFlags().isEmpty()) {
+					long flags = contents[i][j].getFlagMask();
+					if (Candidates.count(flags) <= 2 && flags != Candidates.NONE) {
 						boolean spaced = false;
 						int k = 0;
-						System.out.print(ANSI_RED + "(");
-						for (int flag : contents[i][j].getFlags()) {
-							System.out.print(flag + (!spaced ? " " : ""));
+						out.print(ANSI_RED + "(");
+						for (long rest = flags; rest != 0; rest = Candidates.withoutLowest(rest)) {
+							out.print(Candidates.lowest(rest) + (!spaced ? " " : ""));
 							spaced = true;
 							k++;
 						}
-						System.out.print((k < 2 ? " " : "") + ") " + ANSI_RESET);
+						out.print((k < 2 ? " " : "") + ") " + ANSI_RESET);
 					} else {
-						System.out.print(ANSI_RED + "(   ) " + ANSI_RESET);
+						out.print(ANSI_RED + "(   ) " + ANSI_RESET);
 					}
 				} else {
 					SudokuCell cell = contents[i][j];
-					System.out.print("  " + (!cell.isGiven() ? ANSI_GREEN : "") +  cell.getValue() + (!cell.isGiven() ? ANSI_RESET : "") + "   ");
+					out.print("  " + (!cell.isGiven() ? ANSI_GREEN : "") +  cell.getValue() + (!cell.isGiven() ? ANSI_RESET : "") + "   ");
 				}
 			}
-			System.out.println();
+			out.println();
 		}
-		System.out.println("------------------------ Rem: " + (81-countSolved()));
+		out.println("------------------------ Rem: " + (getCellCount()-countSolved()));
 	}
 
 	public Set<SudokuCell> getUnsolved() {
-		return new HashSet<>(unsolved);
+		Set<SudokuCell> unsolved = new HashSet<>();
+		for (int i = 0; i < contents.length; i++) {
+			for (int j = 0; j < contents[i].length; j++) {
+				if (contents[i][j].getValue() == null) {
+					unsolved.add(contents[i][j]);
+				}
+			}
+		}
+		return unsolved;
 	}
 }
@@ -1,74 +1,128 @@
 package io.johnsanchez.sudokusolver.core;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Observable;
-import java.util.Observer;
 import java.util.Set;
 
-public class SudokuCell extends Observable implements Observer {
+public class SudokuCell {
 
 	private boolean given;
 	private Integer value;
 	private final int row;
 	private final int col;
-	private final Set<Integer> flags = new HashSet<Integer>();
-	private final Set<Integer> possibilities = new HashSet<>();
-//	private final Set<SudokuCell> partners = new HashSet<SudokuCell>();
+	private final int index;
+	// every digit of the board
+	private final long all;
+	private long flags = Candidates.NONE;
+	private long possibilities;
+	// cells sharing a group in which they are the only two places for the paired flags
+	private final SudokuCell[] partners;
+	private final long[] partnerFlags;
+	private int partnerCount;
 	private SudokuCellGroup rowGroup;
 	private SudokuCellGroup colGroup;
 	private SudokuCellGroup group;
 	private SudokuCell lock;
 
 	public SudokuCell(int row, int col) {
-		super();
+		this(row, col, 3);
+	}
+
+	/**
+	 * A cell of a board with boxes of <code>boxSize</code> x <code>boxSize</code> cells, taking the digits 1..boxSize².
+	 */
+	public SudokuCell(int row, int col, int boxSize) {
 		this.row = row;
 		this.col = col;
-
-		for (int i = 1; i <=9; i++) {
-			possibilities.add(i);
-		}
+		int size = boxSize * boxSize;
+		this.index = row * size + col;
+		this.all = Candidates.all(size);
+		this.possibilities = all;
+		// the other cells of the row, of the column and of the box
+		int peers = 2 * (size - 1) + (boxSize - 1) * (boxSize - 1);
+		this.partners = new SudokuCell[peers];
+		this.partnerFlags = new long[peers];
 	}
 
 	public Integer getValue() {
 		return value;
 	}
+
+	/**
+	 * @return the number of the cell on its board, row by row, see {@link SudokuBoard#getCell(int)}
+	 */
+	public int getIndex() {
+		return index;
+	}
 	public void setValue(Integer value) {
 		if (rowGroup.has(value) || colGroup.has(value) || group.has(value)) {
-			throw new RuntimeException("Trying to set " + value + " even though it is already in one of the groups (" + row + ", " + col +") " + rowGroup.has(value) +" " + colGroup.has(value) +" " + group.has(value));
+			throw new ContradictionException("Trying to set " + value + " even though it is already in one of the groups (" + row + ", " + col +") " + rowGroup.has(value) +" " + colGroup.has(value) +" " + group.has(value));
+		}
+		if (!hasPossibility(value)) {
+			throw new ContradictionException("Trying to set " + value + " even though it is no longer possible (" + row + ", " + col +")");
 		}
 
+		changing();
+		long before = getOpenMask();
 		this.value = value;
-		Set<Integer> removedFlags = new HashSet<>(flags);
-		flags.clear();
-		setAndNotify(removedFlags.isEmpty() ? null : removedFlags);
+		long removedFlags = flags;
+		flags = Candidates.NONE;
+		possibilities = Candidates.bit(value);
+		positionsChanged(before);
+		rowGroup.assigned(this);
+		colGroup.assigned(this);
+		group.assigned(this);
+		SudokuBoard board = group.getBoard();
+		board.assigned(this);
+		board.getPropagator().assigned(this, removedFlags);
 	}
 	public void addFlag(int flag) {
-		flags.add(flag);
-		//		setAndNotify();
+		if (!hasFlag(flag)) {
+			changing();
+			flags |= Candidates.bit(flag);
+		}
 	}
 	public void removeFlag(int flag) {
-		flags.remove(flag);
+		if (hasFlag(flag)) {
+			changing();
+			flags &= ~Candidates.bit(flag);
+		}
 	}
 	public void removePossibility(int value) {
-		possibilities.remove(value);
+		if (hasPossibility(value)) {
+			changing();
+			long before = getOpenMask();
+			possibilities &= ~Candidates.bit(value);
+			eliminated(1);
+			positionsChanged(before);
+		}
 	}
 	public boolean hasPossibility(int value) {
-		return possibilities.contains(value);
+		return Candidates.contains(possibilities, value);
 	}
 	public void resetFlag(Integer... newFlags) {
-		Set<Integer> removedFlags = new HashSet<>(flags);
-		flags.clear();
-		flags.addAll(Arrays.asList(newFlags));
-		possibilities.clear();
-		possibilities.addAll(flags);
-		removedFlags.removeIf(val -> flags.contains(val));
-		setAndNotify(removedFlags.isEmpty() ? null : removedFlags);
+		resetFlags(Candidates.of(newFlags));
+	}
+	/**
+	 * Restricts both the flags and the possibilities of this cell to <code>newFlags</code>.
+	 * Partners are notified of the flags that were dropped.
+	 */
+	public void resetFlags(long newFlags) {
+		long removedFlags = flags & ~newFlags;
+		if (flags != newFlags || (possibilities & ~newFlags) != Candidates.NONE) {
+			changing();
+		}
+		flags = newFlags;
+		eliminated(Candidates.count(possibilities & ~newFlags));
+		long before = getOpenMask();
+		possibilities &= newFlags;
+		positionsChanged(before);
+		if (removedFlags != Candidates.NONE) {
+			group.getBoard().getPropagator().flagsDropped(this, removedFlags);
+		}
 	}
 	public boolean hasFlag(int flag) {
-		return flags.contains(flag);
+		return Candidates.contains(flags, flag);
 	}
 
 	public int getRow() {
@@ -79,9 +133,50 @@ public class SudokuCell extends Observable implements Observer {
 		return col;
 	}
 
-	private void setAndNotify(Object args) {
-		setChanged();
-		notifyObservers(args);
+	/**
+	 * Marks the groups of this cell for the next pass of the solver.
+	 */
+	private void changed() {
+		if (group != null) {
+			group.getBoard().changed(this);
+		}
+	}
+
+	/**
+	 * @return the trail of the board while it records changes, see {@link SudokuBoard#mark()}, otherwise <code>null</code>
+	 */
+	private Trail trail() {
+		return group == null ? null : group.getBoard().getTrail();
+	}
+
+	/**
+	 * Like {@link #changed()}, right before the value, the possibilities or the flags change, recording the cell as it
+	 * still is on the trail of the board if it keeps one.
+	 */
+	private void changing() {
+		if (group != null) {
+			SudokuBoard board = group.getBoard();
+			board.changed(this);
+			Trail trail = board.getTrail();
+			if (trail != null) {
+				trail.record(this);
+			}
+		}
+	}
+
+	/**
+	 * Tells the board the cell could be the values of <code>before</code> and now can be those of {@link #getOpenMask()}.
+	 */
+	private void positionsChanged(long before) {
+		if (group != null) {
+			group.getBoard().positionsChanged(this, before, getOpenMask());
+		}
+	}
+
+	private void eliminated(int count) {
+		if (group != null && count > 0) {
+			group.getBoard().eliminated(count);
+		}
 	}
 
 	public SudokuCellGroup getRowGroup() {
@@ -108,50 +203,232 @@ public class SudokuCell extends Observable implements Observer {
 		this.group = group;
 	}
 
-	@Override
-	public void update(Observable o, Object arg) {
-		if (o instanceof SudokuCell) {
-			SudokuCell sudokuCell = (SudokuCell) o;
-			if (sudokuCell.getValue() != null) {
-				sudokuCell.deleteObserver(this);
-				deleteObserver(sudokuCell);
-				removeFlag(sudokuCell.getValue());
-
-//				if (sudokuCell.getPartners().contains(this) && getFlags().size() == 1) {
-//					setValue(getFlags().iterator().next());
-//				}
-				
-				if (this.equals(sudokuCell.getLock()) && getFlags().size() == 1) {
-					setValue(getFlags().iterator().next());
-				}
-			} 
-			if (arg instanceof Set<?>) {
-				@SuppressWarnings("unchecked")
-				Set<Integer> set = (Set<Integer>) arg;
-				for (int flag : new HashSet<Integer>(flags)) {
-					if (set.contains(flag)) {
-						sudokuCell.deleteObserver(this);
-						deleteObserver(sudokuCell);
-						setValue(flag);
-						break;
+	/**
+	 * Pairs this cell with <code>partner</code> as the only two places for <code>flag</code> in a group they share.
+	 * Whenever one of them drops the flag, the other one is set to it.
+	 */
+	public void pair(SudokuCell partner, int flag) {
+		addFlag(flag);
+		partner.addFlag(flag);
+		link(partner, flag);
+		partner.link(this, flag);
+	}
+
+	private void link(SudokuCell partner, int flag) {
+		Trail trail = trail();
+		for (int i = 0; i < partnerCount; i++) {
+			if (partners[i] == partner) {
+				if ((partnerFlags[i] & Candidates.bit(flag)) == Candidates.NONE) {
+					if (trail != null) {
+						trail.linked(this, partner, i, partnerFlags[i]);
 					}
+					partnerFlags[i] |= Candidates.bit(flag);
+					changed();
 				}
+				return;
 			}
+		}
+		if (trail != null) {
+			trail.linked(this, partner, partnerCount, Candidates.NONE);
+		}
+		changed();
+		partners[partnerCount] = partner;
+		partnerFlags[partnerCount++] = Candidates.bit(flag);
+	}
+
+	public void unpair(SudokuCell partner) {
+		unlink(partner);
+		partner.unlink(this);
+	}
+
+	private void unlink(SudokuCell partner) {
+		for (int i = 0; i < partnerCount; i++) {
+			if (partners[i] == partner) {
+				Trail trail = trail();
+				if (trail != null) {
+					trail.unlinked(this, partner, i, partnerFlags[i]);
+				}
+				partnerCount--;
+				partners[i] = partners[partnerCount];
+				partnerFlags[i] = partnerFlags[partnerCount];
+				partners[partnerCount] = null;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the flags this cell is paired on with <code>partner</code>
+	 */
+	public long getPartnerFlags(SudokuCell partner) {
+		for (int i = 0; i < partnerCount; i++) {
+			if (partners[i] == partner) {
+				return partnerFlags[i];
+			}
+		}
+		return Candidates.NONE;
+	}
 
+	/**
+	 * Resets the cell to <code>value</code> and <code>possibilities</code>, dropping flags, locks and partners.
+	 * Used to backtrack; the groups and the board have to be recounted afterwards.
+	 */
+	void restore(Integer value, long possibilities) {
+		while (partnerCount > 0) {
+			unpair(partners[0]);
 		}
+		this.value = value;
+		this.possibilities = possibilities;
+		this.flags = Candidates.NONE;
+		this.lock = null;
+	}
+
+	/**
+	 * Like {@link #restore(Integer, long)}, with the flags, the lock and whether the cell is given as well.
+	 * Partners are linked again with {@link #restorePartner(SudokuCell, long)}.
+	 */
+	void restore(Integer value, long possibilities, long flags, SudokuCell lock, boolean given) {
+		restore(value, possibilities);
+		this.flags = flags;
+		this.lock = lock;
+		this.given = given;
+	}
+
+	void restorePartner(SudokuCell partner, long flags) {
+		partners[partnerCount] = partner;
+		partnerFlags[partnerCount++] = flags;
+	}
+
+	int countPartners() {
+		return partnerCount;
+	}
+
+	SudokuCell getPartner(int index) {
+		return partners[index];
+	}
+
+	long getPartnerFlagsAt(int index) {
+		return partnerFlags[index];
+	}
+
+	/**
+	 * Puts back what {@link Trail#record(SudokuCell)} recorded, taking the value out of the groups if it was not set then.
+	 */
+	void rollBack(Integer value, long possibilities, long flags, SudokuCell lock) {
+		if (this.value != null && value == null) {
+			rowGroup.unassigned(this);
+			colGroup.unassigned(this);
+			group.unassigned(this);
+			group.getBoard().unassigned(this);
+		}
+		long before = getOpenMask();
+		this.value = value;
+		this.possibilities = possibilities;
+		this.flags = flags;
+		this.lock = lock;
+		positionsChanged(before);
+		changed();
+	}
+
+	/**
+	 * Undoes a link to the partner at <code>index</code>, which shared <code>shared</code> before, dropping it if
+	 * it was new and so the last one.
+	 */
+	void unlinkAt(int index, long shared) {
+		if (shared == Candidates.NONE) {
+			partnerCount--;
+			partners[partnerCount] = null;
+		} else {
+			partnerFlags[index] = shared;
+		}
+	}
 
+	/**
+	 * Undoes the unlinking of <code>partner</code> from <code>index</code>, moving back the last partner which took its place.
+	 */
+	void relinkAt(int index, SudokuCell partner, long shared) {
+		partners[partnerCount] = partners[index];
+		partnerFlags[partnerCount] = partnerFlags[index];
+		partners[index] = partner;
+		partnerFlags[index] = shared;
+		partnerCount++;
 	}
 
+	/**
+	 * Empties the cell for a new puzzle, the groups and the board have to be recounted afterwards.
+	 */
+	void reset() {
+		restore(null, all);
+		given = false;
+	}
+
+	/**
+	 * Lets every partner react to this cell being set or dropping <code>removedFlags</code>.
+	 */
+	void notifyPartners(long removedFlags) {
+		// a reacting partner unpairs itself, which moves the last partner in its place
+		for (int i = partnerCount - 1; i >= 0; i--) {
+			if (i < partnerCount) {
+				partners[i].partnerChanged(this, removedFlags);
+			}
+		}
+	}
+
+	private void partnerChanged(SudokuCell partner, long removedFlags) {
+		long linked = getPartnerFlags(partner);
+		if (partner.getValue() != null) {
+			unpair(partner);
+			removeFlag(partner.getValue());
+			linked &= ~Candidates.bit(partner.getValue());
+			
+			if (this.equals(partner.getLock()) && Candidates.count(flags) == 1) {
+				setValue(Candidates.lowest(flags));
+			}
+		} 
+		if (value == null) {
+			long dropped = flags & linked & removedFlags;
+			if (dropped != Candidates.NONE) {
+				unpair(partner);
+				setValue(Candidates.lowest(dropped));
+			}
+		}
+	}
+
+	/**
+	 * @return a copy of the flags, see {@link #getFlagMask()}
+	 */
 	public Set<Integer> getFlags() {
+		return Candidates.toSet(flags);
+	}
+
+	public long getFlagMask() {
 		return flags;
 	}
 
+	/**
+	 * @return a copy of the possibilities, see {@link #getPossibilityMask()}
+	 */
 	public Set<Integer> getPossibilities() {
+		return Candidates.toSet(possibilities);
+	}
+
+	public long getPossibilityMask() {
 		return possibilities;
 	}
+
+	/**
+	 * @return the possibilities while the cell is unsolved, none once it is, as in {@link SudokuBoard#getRowPositions(int, int)}
+	 */
+	long getOpenMask() {
+		return value == null ? possibilities : Candidates.NONE;
+	}
+
+	public int countPossibilities() {
+		return Candidates.count(possibilities);
+	}
 	
 	public List<Integer> getPossibilitiesAsList() {
-		return new ArrayList<>(possibilities);
+		return new ArrayList<>(getPossibilities());
 	}
 
 	public SudokuCell getLock() {
@@ -159,6 +436,12 @@ public class SudokuCell extends Observable implements Observer {
 	}
 
 	public void setLock(SudokuCell lock) {
+		if (this.lock != lock) {
+			Trail trail = trail();
+			if (trail != null) {
+				trail.record(this);
+			}
+		}
 		this.lock = lock;
 	}
 
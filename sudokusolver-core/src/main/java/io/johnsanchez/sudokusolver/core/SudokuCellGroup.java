@@ -4,53 +4,47 @@
 package io.johnsanchez.sudokusolver.core;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Observable;
-import java.util.Observer;
 import java.util.Set;
 
 /**
  * @author user
  *
  */
-public class SudokuCellGroup implements Observer {
+public class SudokuCellGroup {
 	
 	public static enum LineMode {
 		ROW, COLUMN, GROUP
 	}
-	
+
 	private final LineMode mode;
+	private final int index;
 	private final Integer row;
 	private final Integer col;
-	private final Map<Integer, SudokuCell> locator = new HashMap<>();
+	private final SudokuCell[] locator;
 	private final List<SudokuCell> contents = new ArrayList<SudokuCell>();
 	
 	private final SudokuBoard board;
-	private final Set<SudokuCell> unsolved = new HashSet<>();
-	private final Set<Integer> unsolvedValues = new HashSet<>();
+	private final long all;
+	private long unsolvedValues;
 	
 	public SudokuCellGroup(SudokuBoard board, LineMode mode, Integer row, Integer col) {
-		super();
 		this.mode = mode;
 		this.row = row;
 		this.col = col;
 		this.board = board;
-		
-		for (int i = 1; i<=9; i++) {
-			unsolvedValues.add(i);
-		}
+		int size = board.getSize();
+		this.index = mode == LineMode.ROW ? row : mode == LineMode.COLUMN ? size + col : 2 * size + row * board.getBoxSize() + col;
+		this.locator = new SudokuCell[size + 1];
+		this.all = Candidates.all(size);
+		this.unsolvedValues = all;
 	}
 	
 	public void addContent(SudokuCell cell) {
-		cell.addObserver(this);
 		contents.add(cell);
 		if (cell.getValue() != null) {
-			locator.put(cell.getValue(), cell);
-		} else {
-			unsolved.add(cell);
+			locator[cell.getValue()] = cell;
+			unsolvedValues &= ~Candidates.bit(cell.getValue());
 		}
 		if (mode == LineMode.ROW) {
 			cell.setRowGroup(this);
@@ -72,50 +66,121 @@ public class SudokuCellGroup implements Observer {
 		return mode;
 	}
 
-	public void update(Observable o, Object arg) {
-		if (o instanceof SudokuCell) {
-			SudokuCell sudokuCell = (SudokuCell) o;
-			if (sudokuCell.getValue() != null) {
-				locator.put(sudokuCell.getValue(), sudokuCell);
+	/**
+	 * @return 0..size-1 for the rows, size..2*size-1 for the columns and 2*size..3*size-1 for the groups,
+	 * where size is {@link SudokuBoard#getSize()}: 0..8, 9..17 and 18..26 on a 9x9 board
+	 */
+	public int getIndex() {
+		return index;
+	}
 
-				contents.forEach(cell -> {
-					cell.removePossibility(sudokuCell.getValue());
-					cell.removeFlag(sudokuCell.getValue());
-				});
-				unsolvedValues.remove(sudokuCell.getValue());
-				unsolved.remove(sudokuCell);
-			}
-		}
+	/**
+	 * @param units a set of groups as {@link #getIndex()} bits, see {@link SudokuBoard#takeChangedUnits()}
+	 */
+	public boolean isIn(long[] units) {
+		return (units[index >>> 6] & 1L << index) != 0;
 	}
-	
-	public boolean has(int value) {
-		return locator.containsKey(value);
+
+	/**
+	 * Records the value of a cell of this group as soon as it is set.
+	 */
+	void assigned(SudokuCell cell) {
+		locator[cell.getValue()] = cell;
+		unsolvedValues &= ~Candidates.bit(cell.getValue());
 	}
-	
-	public List<SudokuCell> getUnsolved() {
-		return new ArrayList<>(unsolved);
+
+	/**
+	 * Takes back the value of a cell of this group as it is undone, see {@link SudokuBoard#undo(int)}.
+	 */
+	void unassigned(SudokuCell cell) {
+		locator[cell.getValue()] = null;
+		unsolvedValues |= Candidates.bit(cell.getValue());
 	}
 
-	public List<SudokuCell> getContents() {
-		return contents;
+	public boolean has(int value) {
+		return locator[value] != null;
 	}
 	
-	public List<SudokuCell> getFlagged(int value) {
+	public List<SudokuCell> getUnsolved() {
 		List<SudokuCell> res = new ArrayList<>();
-		contents.forEach(cell -> {
-			if (cell.hasFlag(value)) {
+		for (SudokuCell cell : contents) {
+			if (cell.getValue() == null) {
 				res.add(cell);
 			}
-		});
+		}
 		return res;
 	}
 
+	/**
+	 * @return the positions (indexes in {@link #getContents()}) of the unsolved cells which can still be <code>value</code>
+	 */
+	public long positionsOf(int value) {
+		if (mode == LineMode.ROW) {
+			return board.getRowPositions(value, row);
+		} else if (mode == LineMode.COLUMN) {
+			return board.getColPositions(value, col);
+		}
+		return board.getBoxPositions(value, row, col);
+	}
+
+	/**
+	 * @return the first unsolved cell, or <code>null</code> if the group is complete
+	 */
+	public SudokuCell firstUnsolved() {
+		for (SudokuCell cell : contents) {
+			if (cell.getValue() == null) {
+				return cell;
+			}
+		}
+		return null;
+	}
+
+	public List<SudokuCell> getContents() {
+		return contents;
+	}
+	
+	/**
+	 * @return a copy of the missing values, see {@link #getUnsolvedValueMask()}
+	 */
 	public Set<Integer> getUnsolvedValues() {
-		return new HashSet<>(unsolvedValues);
+		return Candidates.toSet(unsolvedValues);
+	}
+
+	public long getUnsolvedValueMask() {
+		return unsolvedValues;
 	}
 	
 	public SudokuCell locate(int value) {
-		return locator.get(value);
+		return locator[value];
+	}
+
+	/**
+	 * @return false if a missing value has no unsolved cell left that can take it
+	 */
+	public boolean isConsistent() {
+		long reachable = Candidates.NONE;
+		for (SudokuCell cell : contents) {
+			if (cell.getValue() == null) {
+				reachable |= cell.getPossibilityMask();
+			}
+		}
+		return (unsolvedValues & ~reachable) == Candidates.NONE;
+	}
+
+	/**
+	 * Rebuilds the located and missing values from the contents, after they were restored.
+	 */
+	void recount() {
+		unsolvedValues = all;
+		for (int i = 0; i < locator.length; i++) {
+			locator[i] = null;
+		}
+		for (SudokuCell cell : contents) {
+			if (cell.getValue() != null) {
+				locator[cell.getValue()] = cell;
+				unsolvedValues &= ~Candidates.bit(cell.getValue());
+			}
+		}
 	}
 
 	public SudokuBoard getBoard() {
@@ -0,0 +1,25 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * A solving engine, see {@link SolverEngine} to pick one per request.
+ */
+public interface SudokuSolver {
+
+	/**
+	 * @param values the givens by row and column, <code>null</code> for a blank
+	 * @return the solved board, or the board as far as the engine got if the puzzle has no solution
+	 */
+	SudokuBoard solve(Integer[][] values);
+
+	/**
+	 * Solves into a board the caller already has, e.g. from a {@link BoardPool}, instead of building a new one.
+	 * The board is reset first.
+	 */
+	SudokuBoard solve(SudokuBoard board, Integer[][] values);
+
+	/**
+	 * Solves a board whose givens are already loaded, giving up once one of the <code>limits</code> is reached. A puzzle
+	 * without a solution is a result rather than a {@link ContradictionException}.
+	 */
+	SolveResult solve(SudokuBoard board, SolveLimits limits);
+}
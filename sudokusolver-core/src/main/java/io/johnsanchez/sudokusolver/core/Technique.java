@@ -0,0 +1,78 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * The steps of {@link SolverCore} which place values or remove possibilities, as reported to
+ * {@link SolveListener#applied(SudokuBoard, Technique, int, int)}.
+ */
+public enum Technique {
+
+	/**
+	 * The last value missing from a group, see {@link SolverCore#solveMissing(SudokuBoard)}.
+	 */
+	MISSING,
+
+	/**
+	 * A value with a single place left in a group, see {@link SolverCore#solveNext(SudokuBoard, int)}.
+	 */
+	SINGLE,
+
+	/**
+	 * A value with two places left in a group, which pairs the cells and clears the value from a line they share.
+	 */
+	PAIR,
+
+	/**
+	 * A value with three places left in a group, which clears the value from a line they share.
+	 */
+	TRIPLE,
+
+	/**
+	 * A cell with a single possibility left, see {@link SolverCore#solveBrutefully(SudokuBoard)}.
+	 */
+	BRUTE,
+
+	/**
+	 * Two cells of a line with the same two possibilities, see {@link SolverCore#reducePossibility(SudokuBoard)}.
+	 */
+	NAKED_PAIR,
+
+	/**
+	 * Two to four cells of a group with as many possibilities between them, which go nowhere else in the group.
+	 */
+	NAKED_SUBSET,
+
+	/**
+	 * Two to four values with as many places left in a group, which leave those cells nothing else.
+	 */
+	HIDDEN_SUBSET,
+
+	/**
+	 * Two lines with the places left for a value in the same two lines across, see {@link CoreStrategy#FISH}.
+	 */
+	X_WING,
+
+	/**
+	 * The same with three lines.
+	 */
+	SWORDFISH,
+
+	/**
+	 * The same with four lines.
+	 */
+	JELLYFISH,
+
+	/**
+	 * A cell with two possibilities and two cells it sees which leave a value to one of them, see {@link CoreStrategy#WINGS}.
+	 */
+	XY_WING,
+
+	/**
+	 * The same with three possibilities in the pivot.
+	 */
+	XYZ_WING,
+
+	/**
+	 * The {@link BacktrackingSearch} once the passes stall, counting what its solution added.
+	 */
+	SEARCH
+}
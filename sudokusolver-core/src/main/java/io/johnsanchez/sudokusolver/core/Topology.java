@@ -0,0 +1,122 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * The shape of the boards of one box size, built once and shared by all of them: the peers of each cell, the cells of
+ * each unit and the units of each cell, as flat arrays of indexes. Cells are numbered row by row, see
+ * {@link SudokuCell#getIndex()}, and units as in {@link SudokuCellGroup#getIndex()}.
+ */
+final class Topology {
+
+	private static final Topology[] SHAPES = new Topology[SudokuBoard.MAX_BOX_SIZE + 1];
+
+	private final int boxSize;
+	private final int size;
+	private final int peerCount;
+	// at cell * peerCount the peers of the cell: the rest of its row, the rest of its column, then the rest of its box
+	private final short[] peers;
+	// at unit * size the cells of the unit, in the order of SudokuCellGroup.getContents()
+	private final short[] unitCells;
+	// at cell * 3 its row, its column and its box
+	private final short[] cellUnits;
+
+	/**
+	 * @return the shape of the boards with boxes of <code>boxSize</code> x <code>boxSize</code> cells
+	 */
+	static Topology of(int boxSize) {
+		// the shapes are immutable, so two threads building the same one at once only waste the work
+		Topology topology = SHAPES[boxSize];
+		if (topology == null) {
+			topology = new Topology(boxSize);
+			SHAPES[boxSize] = topology;
+		}
+		return topology;
+	}
+
+	private Topology(int boxSize) {
+		this.boxSize = boxSize;
+		this.size = boxSize * boxSize;
+		this.peerCount = 2 * (size - 1) + (boxSize - 1) * (boxSize - 1);
+		int cells = size * size;
+		this.peers = new short[cells * peerCount];
+		this.unitCells = new short[3 * size * size];
+		this.cellUnits = new short[3 * cells];
+
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				int cell = row * size + col;
+				int box = row / boxSize * boxSize + col / boxSize;
+				int inBox = row % boxSize * boxSize + col % boxSize;
+				unitCells[row * size + col] = (short) cell;
+				unitCells[(size + col) * size + row] = (short) cell;
+				unitCells[(2 * size + box) * size + inBox] = (short) cell;
+				cellUnits[3 * cell] = (short) row;
+				cellUnits[3 * cell + 1] = (short) (size + col);
+				cellUnits[3 * cell + 2] = (short) (2 * size + box);
+			}
+		}
+
+		for (int cell = 0; cell < cells; cell++) {
+			int row = cell / size;
+			int col = cell % size;
+			int next = cell * peerCount;
+			for (int k = 0; k < size; k++) {
+				if (k != col) {
+					peers[next++] = (short) (row * size + k);
+				}
+			}
+			for (int k = 0; k < size; k++) {
+				if (k != row) {
+					peers[next++] = (short) (k * size + col);
+				}
+			}
+			int box = cellUnits[3 * cell + 2];
+			for (int k = 0; k < size; k++) {
+				int peer = unitCells[box * size + k];
+				if (peer / size != row && peer % size != col) {
+					peers[next++] = (short) peer;
+				}
+			}
+		}
+	}
+
+	int getBoxSize() {
+		return boxSize;
+	}
+
+	/**
+	 * @return the peers of every cell, 20 on a 9x9 board
+	 */
+	int getPeerCount() {
+		return peerCount;
+	}
+
+	/**
+	 * @return the <code>k</code>th peer of <code>cell</code>, the other cells of its row first, then of its column, then of
+	 * its box
+	 */
+	int peer(int cell, int k) {
+		return peers[cell * peerCount + k];
+	}
+
+	/**
+	 * @return the <code>k</code>th cell of <code>unit</code>
+	 */
+	int cellOf(int unit, int k) {
+		return unitCells[unit * size + k];
+	}
+
+	/**
+	 * @return the row of <code>cell</code> for 0, its column for 1 and its box for 2, as unit indexes
+	 */
+	int unitOf(int cell, int kind) {
+		return cellUnits[3 * cell + kind];
+	}
+
+	/**
+	 * @return whether two different cells share a unit
+	 */
+	boolean sees(int cell, int other) {
+		return cell != other && (cellUnits[3 * cell] == cellUnits[3 * other] || cellUnits[3 * cell + 1] == cellUnits[3 * other + 1]
+				|| cellUnits[3 * cell + 2] == cellUnits[3 * other + 2]);
+	}
+}
@@ -0,0 +1,101 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.Arrays;
+
+/**
+ * The changes made to the cells of a board since a mark, newest last, so that they can be undone in reverse order.
+ * See {@link SudokuBoard#mark()}.
+ * <p>
+ * A cell records its value, possibilities, flags and lock right before any of them changes, and the flags it shared with
+ * a partner right before it links or unlinks it. Undoing puts them back and takes the values out of the groups again,
+ * which costs as much as the changes did rather than a pass over the whole board.
+ */
+final class Trail {
+
+	private static final byte CELL = 0;
+	private static final byte LINKED = 1;
+	private static final byte UNLINKED = 2;
+
+	private byte[] kinds = new byte[64];
+	private SudokuCell[] cells = new SudokuCell[kinds.length];
+	// the lock of the cell, or the partner
+	private SudokuCell[] others = new SudokuCell[kinds.length];
+	// the possibilities, or the flags shared with the partner
+	private long[] firsts = new long[kinds.length];
+	private long[] flags = new long[kinds.length];
+	// the value (0 for none), or the index of the partner
+	private int[] numbers = new int[kinds.length];
+	private int size;
+
+	int size() {
+		return size;
+	}
+
+	void record(SudokuCell cell) {
+		Integer value = cell.getValue();
+		add(CELL, cell, cell.getLock(), cell.getPossibilityMask(), cell.getFlagMask(), value == null ? 0 : value);
+	}
+
+	/**
+	 * @param index where <code>partner</code> is or will be among the partners of <code>cell</code>
+	 * @param shared the flags they shared before
+	 */
+	void linked(SudokuCell cell, SudokuCell partner, int index, long shared) {
+		add(LINKED, cell, partner, shared, 0, index);
+	}
+
+	void unlinked(SudokuCell cell, SudokuCell partner, int index, long shared) {
+		add(UNLINKED, cell, partner, shared, 0, index);
+	}
+
+	private void add(byte kind, SudokuCell cell, SudokuCell other, long first, long flag, int number) {
+		if (size == kinds.length) {
+			grow();
+		}
+		kinds[size] = kind;
+		cells[size] = cell;
+		others[size] = other;
+		firsts[size] = first;
+		flags[size] = flag;
+		numbers[size] = number;
+		size++;
+	}
+
+	/**
+	 * Undoes the changes recorded after <code>mark</code>, newest first.
+	 */
+	void undo(int mark) {
+		while (size > mark) {
+			size--;
+			SudokuCell cell = cells[size];
+			if (kinds[size] == CELL) {
+				cell.rollBack(numbers[size] == 0 ? null : numbers[size], firsts[size], flags[size], others[size]);
+			} else if (kinds[size] == LINKED) {
+				cell.unlinkAt(numbers[size], firsts[size]);
+			} else {
+				cell.relinkAt(numbers[size], others[size], firsts[size]);
+			}
+			cells[size] = null;
+			others[size] = null;
+		}
+	}
+
+	/**
+	 * Forgets the changes, keeping them.
+	 */
+	void clear() {
+		Arrays.fill(cells, 0, size, null);
+		Arrays.fill(others, 0, size, null);
+		size = 0;
+	}
+
+	private void grow() {
+		int length = kinds.length * 2;
+		kinds = Arrays.copyOf(kinds, length);
+		cells = Arrays.copyOf(cells, length);
+		others = Arrays.copyOf(others, length);
+		firsts = Arrays.copyOf(firsts, length);
+		flags = Arrays.copyOf(flags, length);
+		numbers = Arrays.copyOf(numbers, length);
+	}
+}
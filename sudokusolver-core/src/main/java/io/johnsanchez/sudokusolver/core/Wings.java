@@ -0,0 +1,84 @@
+package io.johnsanchez.sudokusolver.core;
+
+/**
+ * Finds the wings of a board: a pivot cell and two pincers it sees, which between them leave a value <code>z</code>
+ * in one of the pincers whatever the pivot turns out to be. Every cell which sees both pincers, and the pivot too if it
+ * can be <code>z</code>, cannot be <code>z</code>.
+ * <ul>
+ * <li>XY-Wing: the pivot can be <code>x</code> or <code>y</code>, the pincers <code>x</code> or <code>z</code> and
+ * <code>y</code> or <code>z</code>.
+ * <li>XYZ-Wing: the same with a pivot which can be <code>z</code> as well.
+ * </ul>
+ * A wing only changes once one of its three cells does, and the pincers share a group with the pivot, so only the
+ * pivots in the changed groups are looked at.
+ */
+final class Wings {
+
+	private Wings() {
+	}
+
+	/**
+	 * Removes what the XY-Wings, or the XYZ-Wings if <code>xyz</code>, with a pivot in <code>units</code> rule out.
+	 */
+	static void eliminate(SudokuBoard board, boolean xyz, long[] units) {
+		int pivotPossibilities = xyz ? 3 : 2;
+		for (int i = 0; i < board.getSize(); i++) {
+			for (int j = 0; j < board.getSize(); j++) {
+				SudokuCell pivot = board.getCell(i, j);
+				if (pivot.getValue() == null && pivot.countPossibilities() == pivotPossibilities && isIn(pivot, units)) {
+					wings(board, pivot, xyz);
+				}
+			}
+		}
+	}
+
+	private static void wings(SudokuBoard board, SudokuCell pivot, boolean xyz) {
+		Topology topology = board.getTopology();
+		long mask = pivot.getPossibilityMask();
+		for (int a = 0; a < topology.getPeerCount(); a++) {
+			SudokuCell pincer = board.getCell(topology.peer(pivot.getIndex(), a));
+			long shared = pincer.getPossibilityMask() & mask;
+			if (pincer.getValue() != null || pincer.countPossibilities() != 2 || Candidates.count(shared) != (xyz ? 2 : 1)) {
+				continue;
+			}
+			// x or z for an XY-Wing, with y or z to find; for an XYZ-Wing a pair within the pivot, with the other pair
+			long z = xyz ? Candidates.NONE : pincer.getPossibilityMask() & ~mask;
+			long other = xyz ? Candidates.NONE : mask & ~shared | z;
+			// each pair of pincers once
+			for (int b = a + 1; b < topology.getPeerCount(); b++) {
+				SudokuCell second = board.getCell(topology.peer(pivot.getIndex(), b));
+				if (second.getValue() != null || second.countPossibilities() != 2) {
+					continue;
+				}
+				if (xyz) {
+					long pair = second.getPossibilityMask();
+					if ((pair & ~mask) == 0 && pair != pincer.getPossibilityMask()) {
+						remove(board, pivot, pincer, second, Candidates.lowest(pair & pincer.getPossibilityMask()), true);
+					}
+				} else if (second.getPossibilityMask() == other) {
+					remove(board, pivot, pincer, second, Candidates.lowest(z), false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes <code>z</code> from every cell which sees both pincers, and the pivot too if <code>pivotToo</code>.
+	 * Those cells are all peers of the first pincer.
+	 */
+	private static void remove(SudokuBoard board, SudokuCell pivot, SudokuCell pincer, SudokuCell second, int z, boolean pivotToo) {
+		Topology topology = board.getTopology();
+		for (int k = 0; k < topology.getPeerCount(); k++) {
+			int index = topology.peer(pincer.getIndex(), k);
+			SudokuCell cell = board.getCell(index);
+			if (cell != pivot && cell != second && cell.getValue() == null && cell.hasPossibility(z)
+					&& topology.sees(index, second.getIndex()) && (!pivotToo || topology.sees(index, pivot.getIndex()))) {
+				cell.removePossibility(z);
+			}
+		}
+	}
+
+	private static boolean isIn(SudokuCell cell, long[] units) {
+		return cell.getRowGroup().isIn(units) || cell.getColGroup().isIn(units) || cell.getGroup().isIn(units);
+	}
+}
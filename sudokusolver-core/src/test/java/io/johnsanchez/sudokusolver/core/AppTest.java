@@ -1,16 +1,19 @@
 package io.johnsanchez.sudokusolver.core;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.Scanner;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
 import junit.framework.TestSuite;
 
 /**
- * Unit test for simple App.
+ * Unit test for the command line of {@link App}.
  */
 public class AppTest 
     extends TestCase
@@ -33,35 +36,105 @@ public class AppTest
         return new TestSuite( AppTest.class );
     }
 
-    /**
-     * Rigourous Test :-)
-     */
-    public void testApp()
+    public void testSolvesLines() throws IOException
+    {
+        List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        App.Report report;
+        try (PuzzleReader reader = new PuzzleReader(AppTest.class.getResourceAsStream("/hard_puzzles.txt"));
+                PuzzleWriter writer = new PuzzleWriter(out)) {
+            report = App.run(reader, writer, new BatchSolver(SolverEngine.CORE));
+        }
+        assertEquals(lines.size(), report.puzzles);
+        assertEquals(0, report.unsolved);
+        String[] solutions = new String(out.toByteArray(), StandardCharsets.US_ASCII).split("\n");
+        assertEquals(lines.size(), solutions.length);
+        for (int i = 0; i < solutions.length; i++) {
+            assertEquals(lines.get(i)[1], solutions[i]);
+        }
+    }
+
+    public void testMappedFileInChunks() throws IOException
+    {
+        List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+        StringBuilder input = new StringBuilder("# comments and empty lines are skipped\r\n\r\n");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            String[] line = lines.get(i % lines.size());
+            input.append(line[0].replace('.', '0')).append("\r\n");
+            expected.append(line[1]).append('\n');
+        }
+        Path file = Files.createTempFile("puzzles", ".txt");
+        try {
+            Files.write(file, input.toString().getBytes(StandardCharsets.US_ASCII));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (PuzzleReader reader = PuzzleReader.open(file); PuzzleWriter writer = new PuzzleWriter(out)) {
+                assertEquals(3000, App.run(reader, writer, new BatchSolver(SolverEngine.DANCING_LINKS)).puzzles);
+            }
+            assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.US_ASCII));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    public void testPuzzleWithoutSolution() throws IOException
+    {
+        String puzzles = SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0] + "\n11" + new String(new char[79]).replace('\0', '.');
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        App.Report report;
+        try (PuzzleReader reader = new PuzzleReader(new ByteArrayInputStream(puzzles.getBytes(StandardCharsets.US_ASCII)));
+                PuzzleWriter writer = new PuzzleWriter(out)) {
+            report = App.run(reader, writer, new BatchSolver(SolverEngine.CORE));
+        }
+        assertEquals(2, report.puzzles);
+        assertEquals(1, report.unsolved);
+        assertTrue(new String(out.toByteArray(), StandardCharsets.US_ASCII).endsWith("\n11" + new String(new char[79]).replace('\0', '.') + "\n"));
+    }
+
+    public void testUnsolvedPuzzleWrittenAsGiven() throws IOException
+    {
+        // the passes solve a cell before the search finds no solution
+        String puzzle = "86.........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        App.Report report;
+        try (PuzzleReader reader = new PuzzleReader(new ByteArrayInputStream(puzzle.getBytes(StandardCharsets.US_ASCII)));
+                PuzzleWriter writer = new PuzzleWriter(out)) {
+            report = App.run(reader, writer, new BatchSolver(SolverEngine.CORE));
+        }
+        assertEquals(1, report.unsolved);
+        assertEquals(puzzle + "\n", new String(out.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    public void testMalformedLineAfterPuzzlesInFlight() throws IOException
+    {
+        List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            String[] line = lines.get(i % lines.size());
+            input.append(line[0]).append('\n');
+            expected.append(line[1]).append('\n');
+        }
+        input.append("12345\n").append(lines.get(0)[0]).append('\n');
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PuzzleReader reader = new PuzzleReader(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.US_ASCII)));
+                PuzzleWriter writer = new PuzzleWriter(out)) {
+            App.run(reader, writer, new BatchSolver(SolverEngine.CORE));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 3001"));
+        }
+        assertEquals(expected.toString(), new String(out.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    public void testRejectsMalformedLines() throws IOException
     {
-        assertTrue( true );
+        try (PuzzleReader reader = new PuzzleReader(new ByteArrayInputStream("1234............\n12345\n".getBytes(StandardCharsets.US_ASCII)))) {
+            assertEquals(4, reader.next().length);
+            reader.next();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 2"));
+        }
     }
-    
-    public static void main(String[] args) {
-    	List<Integer[]> list = new ArrayList<>();
-		try (Scanner scanner = new Scanner(AppTest.class.getResourceAsStream("/test_cases.txt"))) {
-			while (scanner.hasNextLine()) {
-				String line = scanner.nextLine();
-				char[] chars = line.toCharArray();
-				Integer[] vals = new Integer[9];
-				for (int i = 0; i < vals.length && i < chars.length; i++) {
-					if (chars[i] == ' ') {
-						vals[i] = null;
-					} else {
-						vals[i] = Integer.parseInt(chars[i] + "");
-					}
-				}
-				list.add(vals);
-			}
-		}
-		Integer[][] out = list.toArray(new Integer[9][]);
-		SolverCore core = new SolverCore();
-		SudokuBoard board = core.solve(out);
-		board.log();
-		
-	}
 }
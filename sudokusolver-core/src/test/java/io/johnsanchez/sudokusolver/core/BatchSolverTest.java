@@ -0,0 +1,52 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+public class BatchSolverTest extends TestCase {
+
+	public void testResultsInInputOrder() {
+		List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+		List<Integer[][]> puzzles = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			lines.forEach(line -> puzzles.add(SolverCoreTest.parse(line[0])));
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		for (SolverEngine engine : SolverEngine.values()) {
+			List<SudokuBoard> boards = new BatchSolver(engine, pool).solve(puzzles);
+			assertEquals(puzzles.size(), boards.size());
+			for (int i = 0; i < boards.size(); i++) {
+				Integer[][] expected = SolverCoreTest.parse(lines.get(i % lines.size())[1]);
+				assertTrue(engine + " " + i, Arrays.deepEquals(expected, boards.get(i).getContentValues()));
+			}
+		}
+		pool.shutdown();
+	}
+
+	public void testStream() {
+		List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+		List<SudokuBoard> boards = new ArrayList<>();
+		new BatchSolver(SolverEngine.DANCING_LINKS).solve(lines.stream().map(line -> SolverCoreTest.parse(line[0])), boards::add);
+		assertEquals(lines.size(), boards.size());
+		for (int i = 0; i < boards.size(); i++) {
+			assertTrue(Arrays.deepEquals(SolverCoreTest.parse(lines.get(i)[1]), boards.get(i).getContentValues()));
+		}
+	}
+
+	public void testSolveValues() {
+		List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+		List<Integer[][]> puzzles = new ArrayList<>();
+		lines.forEach(line -> puzzles.add(SolverCoreTest.parse(line[0])));
+		for (SolverEngine engine : SolverEngine.values()) {
+			List<Integer[][]> solutions = new BatchSolver(engine).solveValues(puzzles);
+			for (int i = 0; i < solutions.size(); i++) {
+				assertTrue(engine + " " + i, Arrays.deepEquals(SolverCoreTest.parse(lines.get(i)[1]), solutions.get(i)));
+			}
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class CachingSolverTest extends TestCase {
+
+	public void testEquivalentPuzzlesShareForm() {
+		Canonicalizer canonicalizer = new Canonicalizer();
+		Random random = new Random(3);
+		for (String[] puzzle : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			Integer[][] values = SolverCoreTest.parse(puzzle[0]);
+			Canonicalizer.Form form = canonicalizer.canonicalize(values);
+			assertTrue(Arrays.deepEquals(values, form.fromCanonical(form.toCanonical(values))));
+			for (int k = 0; k < 5; k++) {
+				assertEquals(puzzle[0], form.getKey(), canonicalizer.canonicalize(shuffle(values, random)).getKey());
+			}
+		}
+	}
+
+	public void testAnswersEquivalentPuzzles() {
+		CachingSolver solver = new CachingSolver(new SolverCore(), 16);
+		Random random = new Random(5);
+		for (String[] puzzle : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			Integer[][] values = SolverCoreTest.parse(puzzle[0]);
+			SolverCoreTest.assertSolves(values, solver.solve(values));
+			Integer[][] shuffled = shuffle(values, random);
+			SudokuBoard board = solver.solve(new SudokuBoard(), shuffled);
+			SolverCoreTest.assertSolves(shuffled, board);
+			assertEquals(shuffled[0][0] != null, board.getCell(0, 0).isGiven());
+		}
+		int puzzles = SolverCoreTest.readLines("/hard_puzzles.txt").size();
+		assertEquals(puzzles, solver.getHits());
+		assertEquals(puzzles, solver.getMisses());
+	}
+
+	public void testEvictsLeastRecentlyUsed() {
+		CachingSolver solver = new CachingSolver(new SolverCore(), 2);
+		List<String[]> puzzles = SolverCoreTest.readLines("/hard_puzzles.txt");
+		Integer[][] first = SolverCoreTest.parse(puzzles.get(0)[0]);
+		solver.solve(first);
+		solver.solve(SolverCoreTest.parse(puzzles.get(1)[0]));
+		solver.solve(first);
+		solver.solve(SolverCoreTest.parse(puzzles.get(2)[0]));
+		assertEquals(1, solver.getEvictions());
+		assertEquals(2, solver.size());
+		solver.solve(first);
+		assertEquals(2, solver.getHits());
+	}
+
+	public void testSparsePuzzles() {
+		CachingSolver solver = new CachingSolver(new SolverCore(), 4);
+		Integer[][] empty = new Integer[9][9];
+		SolverCoreTest.assertSolves(empty, solver.solve(empty));
+		SolverCoreTest.assertSolves(empty, solver.solve(empty));
+		assertEquals(1, solver.getHits());
+		Integer[][] small = new Integer[4][4];
+		small[1][2] = 3;
+		SolverCoreTest.assertSolves(small, solver.solve(small));
+	}
+
+	public void testCachesOnlySolvedResults() {
+		CachingSolver solver = new CachingSolver(new SolverCore(), 4);
+		Integer[][] values = SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0]);
+		SudokuBoard board = new SudokuBoard();
+		board.load(values);
+		assertEquals(SolveResult.Status.TIMED_OUT, solver.solve(board, SolveLimits.NONE.withMaxSteps(2)).getStatus());
+		assertEquals(0, solver.size());
+
+		board.load(values);
+		assertTrue(solver.solve(board, SolveLimits.NONE).isSolved());
+		SolverCoreTest.assertSolves(values, board);
+		assertEquals(1, solver.size());
+
+		board.load(shuffle(values, new Random(7)));
+		Integer[][] shuffled = board.getContentValues();
+		SolveResult result = solver.solve(board, SolveLimits.NONE.withMaxSteps(2));
+		assertTrue(result.isSolved());
+		SolverCoreTest.assertSolves(shuffled, result.getBoard());
+		assertEquals(1, solver.getHits());
+		assertEquals(2, solver.getMisses());
+	}
+
+	/**
+	 * @return the puzzle with its digits relabelled, maybe transposed, and its bands, stacks, rows and columns shuffled
+	 */
+	static Integer[][] shuffle(Integer[][] values, Random random) {
+		int size = values.length;
+		int boxSize = SudokuBoard.boxSizeOf(size);
+		List<Integer> digits = order(size + 1, 1, random);
+		int[] rows = lines(boxSize, random);
+		int[] cols = lines(boxSize, random);
+		boolean transpose = random.nextBoolean();
+		Integer[][] shuffled = new Integer[size][size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				Integer value = transpose ? values[cols[j]][rows[i]] : values[rows[i]][cols[j]];
+				shuffled[i][j] = value == null ? null : digits.get(value - 1);
+			}
+		}
+		return shuffled;
+	}
+
+	private static int[] lines(int boxSize, Random random) {
+		int[] lines = new int[boxSize * boxSize];
+		List<Integer> bands = order(boxSize, 0, random);
+		for (int b = 0; b < boxSize; b++) {
+			List<Integer> inBand = order(boxSize, 0, random);
+			for (int k = 0; k < boxSize; k++) {
+				lines[b * boxSize + k] = bands.get(b) * boxSize + inBand.get(k);
+			}
+		}
+		return lines;
+	}
+
+	private static List<Integer> order(int end, int start, Random random) {
+		List<Integer> order = new ArrayList<>();
+		for (int k = start; k < end; k++) {
+			order.add(k);
+		}
+		Collections.shuffle(order, random);
+		return order;
+	}
+}
@@ -0,0 +1,23 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import junit.framework.TestCase;
+
+public class ConsoleSolveListenerTest extends TestCase {
+
+	public void testTracesToTheGivenStream() {
+		Integer[][] values = SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0]);
+		for (boolean colored : new boolean[] { true, false }) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+			SolverCoreTest.assertSolves(values, new SolverCore(new ConsoleSolveListener(out, colored)).solve(values));
+			String trace = bytes.toString(StandardCharsets.UTF_8);
+			assertTrue(trace.contains("After "));
+			assertTrue(trace.endsWith("Rem: 0" + System.lineSeparator()));
+			assertEquals(colored, trace.contains(SudokuBoard.ANSI_GREEN));
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class DancingLinksSolverTest extends TestCase {
+
+	public void testSolvesHardPuzzles() {
+		SudokuSolver solver = SolverEngine.DANCING_LINKS.newSolver();
+		for (String[] puzzle : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			SudokuBoard board = solver.solve(SolverCoreTest.parse(puzzle[0]));
+			assertTrue(puzzle[0], Arrays.deepEquals(SolverCoreTest.parse(puzzle[1]), board.getContentValues()));
+		}
+	}
+
+	public void testAgreesWithCore() {
+		List<Integer[][]> grids = SolverCoreTest.readGrids("/expected_result.txt");
+		for (int i = 0; i < grids.size(); i += 2) {
+			SudokuBoard board = SolverEngine.DANCING_LINKS.solve(grids.get(i));
+			assertTrue(Arrays.deepEquals(SolverEngine.CORE.solve(grids.get(i)).getContentValues(), board.getContentValues()));
+			assertTrue(board.getCell(0, 0).getValue() != null);
+			assertEquals(81, board.countSolved());
+		}
+	}
+
+	public void testLimits() {
+		String[] puzzle = SolverCoreTest.readLines("/hard_puzzles.txt").get(0);
+		SudokuSolver solver = SolverEngine.DANCING_LINKS.newSolver();
+		SudokuBoard board = new SudokuBoard();
+		board.load(SolverCoreTest.parse(puzzle[0]));
+		SolveResult result = solver.solve(board, SolveLimits.NONE.withMaxSteps(100000));
+		assertEquals(SolveResult.Status.SOLVED, result.getStatus());
+		assertTrue(result.getSteps() > 0);
+		assertTrue(Arrays.deepEquals(SolverCoreTest.parse(puzzle[1]), board.getContentValues()));
+
+		board.load(SolverCoreTest.parse(puzzle[0]));
+		assertEquals(SolveResult.Status.TIMED_OUT, solver.solve(board, SolveLimits.NONE.withMaxSteps(2)).getStatus());
+
+		board.load(SolverCoreTest.parse(puzzle[1]));
+		assertEquals(SolveResult.Status.SOLVED, solver.solve(board, SolveLimits.NONE).getStatus());
+	}
+
+	public void testEmptyBoard() {
+		SudokuBoard board = SolverEngine.DANCING_LINKS.solve(new Integer[9][9]);
+		assertEquals(81, board.countSolved());
+	}
+
+	public void testLargerBoards() {
+		for (int boxSize = 2; boxSize <= 5; boxSize++) {
+			int size = boxSize * boxSize;
+			SudokuBoard empty = SolverEngine.DANCING_LINKS.solve(new Integer[size][size]);
+			SolverCoreTest.assertSolves(new Integer[size][size], empty);
+			
+			Integer[][] puzzle = SolverCoreTest.blank(empty.getContentValues(), 0.4, boxSize);
+			SolverCoreTest.assertSolves(puzzle, SolverEngine.DANCING_LINKS.solve(puzzle));
+		}
+	}
+
+	public void testNoSolution() {
+		// the first row has no place left for a 9
+		Integer[][] values = new Integer[9][9];
+		for (int j = 0; j < 8; j++) {
+			values[0][j] = j + 1;
+		}
+		values[1][8] = 9;
+		SudokuBoard board = SolverEngine.DANCING_LINKS.solve(values);
+		assertEquals(9, board.countSolved());
+	}
+}
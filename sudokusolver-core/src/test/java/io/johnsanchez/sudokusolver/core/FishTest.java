@@ -0,0 +1,68 @@
+package io.johnsanchez.sudokusolver.core;
+
+import junit.framework.TestCase;
+
+public class FishTest extends TestCase {
+
+	/**
+	 * Leaves <code>value</code> in <code>row</code> only at the columns of <code>cols</code>.
+	 */
+	private static void confineToColumns(SudokuBoard board, int value, int row, long cols) {
+		for (int col = 0; col < board.getSize(); col++) {
+			if ((cols & 1L << col) == 0) {
+				board.getCell(row, col).removePossibility(value);
+			}
+		}
+	}
+
+	public void testXWing() {
+		SudokuBoard board = new SudokuBoard();
+		long cols = 1L << 3 | 1L << 7;
+		confineToColumns(board, 5, 1, cols);
+		confineToColumns(board, 5, 6, cols);
+
+		Fish.eliminate(board, 2, board.allUnits());
+		for (int row = 0; row < 9; row++) {
+			boolean base = row == 1 || row == 6;
+			assertEquals(base, board.getCell(row, 3).hasPossibility(5));
+			assertEquals(base, board.getCell(row, 7).hasPossibility(5));
+			assertTrue(row == 1 || row == 6 || board.getCell(row, 4).hasPossibility(5));
+		}
+	}
+
+	public void testSwordfishOfColumns() {
+		SudokuBoard board = new SudokuBoard();
+		int[][] places = { { 0, 2, 5 }, { 4, 5, 8 }, { 8, 2, 8 } };
+		for (int[] place : places) {
+			for (int row = 0; row < 9; row++) {
+				if (row != place[1] && row != place[2]) {
+					board.getCell(row, place[0]).removePossibility(7);
+				}
+			}
+		}
+
+		Fish.eliminate(board, 2, board.allUnits());
+		assertTrue(board.getCell(2, 1).hasPossibility(7));
+		Fish.eliminate(board, 3, board.allUnits());
+		for (int col = 0; col < 9; col++) {
+			boolean base = col == 0 || col == 4 || col == 8;
+			for (int row : new int[] { 2, 5, 8 }) {
+				assertEquals(base && (row == places[col / 4][1] || row == places[col / 4][2]), board.getCell(row, col).hasPossibility(7));
+			}
+		}
+		assertTrue(board.getCell(3, 1).hasPossibility(7));
+	}
+
+	public void testOnlyChangedBaseLines() {
+		SudokuBoard board = new SudokuBoard();
+		long cols = 1L << 0 | 1L << 1;
+		confineToColumns(board, 2, 4, cols);
+		confineToColumns(board, 2, 7, cols);
+		board.takeChangedUnits();
+
+		Fish.eliminate(board, 2, new long[board.allUnits().length]);
+		assertTrue(board.getCell(0, 0).hasPossibility(2));
+		Fish.eliminate(board, 2, board.allUnits());
+		assertFalse(board.getCell(0, 0).hasPossibility(2));
+	}
+}
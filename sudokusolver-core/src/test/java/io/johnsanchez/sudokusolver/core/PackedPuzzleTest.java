@@ -0,0 +1,104 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class PackedPuzzleTest extends TestCase {
+
+	private Path file;
+
+	@Override
+	protected void setUp() throws IOException {
+		file = Files.createTempFile("puzzles", ".pack");
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		Files.delete(file);
+	}
+
+	public void testRoundTrip() throws IOException {
+		List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+		try (PackedPuzzleWriter writer = PackedPuzzleWriter.create(file, 3)) {
+			for (String[] line : lines) {
+				writer.write(SolverCoreTest.parse(line[0]));
+			}
+		}
+		assertEquals(32 + 41 * lines.size(), Files.size(file));
+
+		try (PackedPuzzleReader reader = PackedPuzzleReader.open(file)) {
+			assertEquals(lines.size(), reader.size());
+			for (int i = lines.size() - 1; i >= 0; i--) {
+				assertTrue(Arrays.deepEquals(SolverCoreTest.parse(lines.get(i)[0]), reader.get(i)));
+			}
+			for (String[] line : lines) {
+				assertTrue(reader.hasNext());
+				assertTrue(Arrays.deepEquals(SolverCoreTest.parse(line[0]), reader.next()));
+			}
+			assertFalse(reader.hasNext());
+		}
+	}
+
+	public void testLoadsAndStoresBoards() throws IOException {
+		List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+		Path solutions = Files.createTempFile("solutions", ".pack");
+		try {
+			try (PackedPuzzleWriter writer = PackedPuzzleWriter.create(file, 3)) {
+				for (String[] line : lines) {
+					writer.write(SolverCoreTest.parse(line[0]));
+				}
+			}
+			SolverCore core = new SolverCore();
+			SudokuBoard board = new SudokuBoard();
+			try (PackedPuzzleReader reader = PackedPuzzleReader.open(file); PackedPuzzleWriter writer = PackedPuzzleWriter.create(solutions, 3)) {
+				while (reader.hasNext()) {
+					writer.write(core.solve(reader.loadNext(board)));
+				}
+			}
+			try (PackedPuzzleReader reader = PackedPuzzleReader.open(solutions)) {
+				for (int i = 0; i < lines.size(); i++) {
+					assertTrue(Arrays.deepEquals(SolverCoreTest.parse(lines.get(i)[1]), reader.get(i)));
+				}
+			}
+		} finally {
+			Files.delete(solutions);
+		}
+	}
+
+	public void testLargerBoards() throws IOException {
+		Integer[][] puzzle = SolverCoreTest.blank(new DancingLinksSolver().solve(new Integer[16][16]).getContentValues(), 0.5, 1);
+		try (PackedPuzzleWriter writer = PackedPuzzleWriter.create(file, 4)) {
+			writer.write(puzzle);
+			writer.write(new Integer[16][16]);
+		}
+		try (PackedPuzzleReader reader = PackedPuzzleReader.open(file)) {
+			assertEquals(4, reader.getBoxSize());
+			assertTrue(Arrays.deepEquals(puzzle, reader.get(0)));
+			assertTrue(Arrays.deepEquals(new Integer[16][16], reader.get(1)));
+			SudokuBoard board = reader.load(0, new SudokuBoard(4));
+			assertTrue(Arrays.deepEquals(puzzle, board.getContentValues()));
+			assertTrue(board.getCell(0, 0).isGiven() == (puzzle[0][0] != null));
+			try {
+				reader.load(0, new SudokuBoard());
+				fail();
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+		}
+	}
+
+	public void testRejectsOtherFiles() throws IOException {
+		Files.write(file, "not a packed file at all, just some text".getBytes("US-ASCII"));
+		try {
+			PackedPuzzleReader.open(file).close();
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Not a packed puzzle file", e.getMessage());
+		}
+	}
+}
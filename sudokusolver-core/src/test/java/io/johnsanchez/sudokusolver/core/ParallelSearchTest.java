@@ -0,0 +1,88 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+public class ParallelSearchTest extends TestCase {
+
+	private ForkJoinPool pool;
+
+	@Override
+	protected void setUp() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@Override
+	protected void tearDown() {
+		pool.shutdown();
+	}
+
+	public void testSolvesHardPuzzles() {
+		ParallelSearch search = new ParallelSearch(pool);
+		SudokuBoard board = new SudokuBoard();
+		for (String[] puzzle : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			assertSame(board, search.solve(board, SolverCoreTest.parse(puzzle[0])));
+			assertTrue(puzzle[0], Arrays.deepEquals(SolverCoreTest.parse(puzzle[1]), board.getContentValues()));
+			assertTrue(board.getCell(0, 0).isGiven() == (puzzle[0].charAt(0) != '.'));
+		}
+	}
+
+	public void testSolvesEmptyBoards() {
+		for (int boxSize = 2; boxSize <= 4; boxSize++) {
+			int size = boxSize * boxSize;
+			SolverCoreTest.assertSolves(new Integer[size][size], new ParallelSearch(pool).solve(new Integer[size][size]));
+		}
+	}
+
+	public void testCountsLikeCore() {
+		ParallelSearch search = new ParallelSearch(pool);
+		SolverCore core = new SolverCore();
+		Integer[][] solution = SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[1]);
+		for (int seed = 0; seed < 10; seed++) {
+			Integer[][] puzzle = SolverCoreTest.blank(solution, 0.65, seed);
+			assertEquals(core.countSolutions(puzzle, 50), search.countSolutions(puzzle, 50));
+		}
+		assertEquals(1000, search.countSolutions(new Integer[9][9], 1000));
+		assertEquals(1, search.countSolutions(solution, 2));
+	}
+
+	public void testLimits() {
+		ParallelSearch search = new ParallelSearch(pool);
+		SudokuBoard board = new SudokuBoard(4);
+		board.load(new Integer[16][16]);
+		SolveResult result = search.solve(board, SolveLimits.NONE.withMaxSteps(100000));
+		assertEquals(SolveResult.Status.SOLVED, result.getStatus());
+		assertTrue(result.getSteps() > 0);
+		SolverCoreTest.assertSolves(new Integer[16][16], board);
+
+		board.load(new Integer[16][16]);
+		assertEquals(SolveResult.Status.TIMED_OUT, search.solve(board, SolveLimits.NONE.withMaxSteps(5)).getStatus());
+		assertEquals(0, board.countSolved());
+
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		board.load(new Integer[16][16]);
+		assertEquals(SolveResult.Status.CANCELLED, search.solve(board, SolveLimits.NONE.withToken(token)).getStatus());
+	}
+
+	public void testNoSolution() {
+		// the first row has no place left for a 9
+		Integer[][] values = new Integer[9][9];
+		for (int j = 0; j < 8; j++) {
+			values[0][j] = j + 1;
+		}
+		values[1][8] = 9;
+		assertEquals(0, new ParallelSearch(pool).countSolutions(values, 2));
+		try {
+			new ParallelSearch(pool).solve(values);
+			fail();
+		} catch (ContradictionException e) {
+			// found by the passes, like SolverCore.solve
+		}
+		SudokuBoard board = new SudokuBoard();
+		board.load(values);
+		assertEquals(SolveResult.Status.CONTRADICTION, new ParallelSearch(pool).solve(board, SolveLimits.NONE).getStatus());
+	}
+}
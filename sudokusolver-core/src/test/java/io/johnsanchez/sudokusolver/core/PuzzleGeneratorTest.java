@@ -0,0 +1,82 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+public class PuzzleGeneratorTest extends TestCase {
+
+	private ForkJoinPool pool;
+
+	@Override
+	protected void setUp() {
+		pool = new ForkJoinPool(4);
+	}
+
+	@Override
+	protected void tearDown() {
+		pool.shutdown();
+	}
+
+	public void testGeneratesGradedUniquePuzzles() {
+		PuzzleGenerator generator = new PuzzleGenerator(3, 42, pool);
+		for (Difficulty difficulty : Difficulty.values()) {
+			for (Integer[][] puzzle : generator.generate(difficulty, 3)) {
+				assertTrue(new SolverCore().hasUniqueSolution(puzzle));
+				assertEquals(difficulty, generator.grade(puzzle));
+			}
+		}
+	}
+
+	public void testSameSeedSamePuzzles() {
+		List<Integer[][]> first = new PuzzleGenerator(3, 7, pool).generate(Difficulty.MEDIUM, 8);
+		List<Integer[][]> second = new PuzzleGenerator(3, 7, ForkJoinPool.commonPool()).generate(Difficulty.MEDIUM, 8);
+		assertEquals(8, first.size());
+		for (int i = 0; i < first.size(); i++) {
+			assertTrue(Arrays.deepEquals(first.get(i), second.get(i)));
+		}
+	}
+
+	public void testSmallerBoards() {
+		Integer[][] puzzle = new PuzzleGenerator(2, 1, pool).generate(Difficulty.EASY);
+		assertEquals(4, puzzle.length);
+		assertTrue(new SolverCore().hasUniqueSolution(puzzle));
+	}
+
+	public void testRemovesPointingLikeTheSolver() {
+		SudokuBoard board = new SudokuBoard();
+		// 5 only on row 4 in the box of the middle band and the right stack, 7 only on column 4 in the bottom middle box
+		for (int k = 0; k < 9; k++) {
+			if (3 + k / 3 != 4) {
+				board.getCell(3 + k / 3, 6 + k % 3).removePossibility(5);
+			}
+			if (3 + k % 3 != 4) {
+				board.getCell(6 + k / 3, 3 + k % 3).removePossibility(7);
+			}
+		}
+		long[] candidates = new long[81];
+		for (int cell = 0; cell < candidates.length; cell++) {
+			candidates[cell] = board.getCell(cell / 9, cell % 9).getPossibilityMask();
+		}
+
+		assertTrue(new PuzzleGenerator(1).removePointing(candidates, new int[81]));
+		SolverCore.solveNext(board, 5, board.allUnits(), true, SolveListener.NONE);
+		SolverCore.solveNext(board, 7, board.allUnits(), true, SolveListener.NONE);
+		for (int cell = 0; cell < candidates.length; cell++) {
+			assertEquals(board.getCell(cell / 9, cell % 9).getPossibilityMask(), candidates[cell]);
+		}
+		for (int k = 0; k < 9; k++) {
+			assertEquals(k >= 6, Candidates.contains(candidates[4 * 9 + k], 5));
+			assertEquals(k >= 6, Candidates.contains(candidates[k * 9 + 4], 7));
+		}
+	}
+
+	public void testGrade() {
+		PuzzleGenerator generator = new PuzzleGenerator(1);
+		for (String[] puzzle : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			assertTrue(generator.grade(SolverCoreTest.parse(puzzle[0])).includes(Difficulty.MEDIUM));
+		}
+	}
+}
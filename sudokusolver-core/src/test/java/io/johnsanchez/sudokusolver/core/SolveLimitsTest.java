@@ -0,0 +1,88 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class SolveLimitsTest extends TestCase {
+
+	private static Integer[][] hard() {
+		return SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0]);
+	}
+
+	public void testSolves() {
+		Integer[][] values = hard();
+		SolveResult result = new SolverCore().solve(values, SolveLimits.NONE.withTimeout(1, TimeUnit.MINUTES).withMaxSteps(100000));
+		assertEquals(SolveResult.Status.SOLVED, result.getStatus());
+		assertTrue(result.getSteps() > 0);
+		SolverCoreTest.assertSolves(values, result.getBoard());
+	}
+
+	public void testStallsWithoutGuessing() {
+		SolveResult result = new SolverCore(SolveListener.NONE, Difficulty.EASY).solve(new Integer[9][9], SolveLimits.NONE);
+		assertEquals(SolveResult.Status.STALLED, result.getStatus());
+	}
+
+	public void testContradictions() {
+		Integer[][] clash = new Integer[9][9];
+		clash[0][0] = 1;
+		clash[0][8] = 1;
+		assertEquals(SolveResult.Status.CONTRADICTION, new SolverCore().solve(clash, SolveLimits.NONE).getStatus());
+
+		// 1 can go nowhere in the first box
+		Integer[][] unsolvable = new Integer[9][9];
+		unsolvable[0][3] = 1;
+		unsolvable[1][6] = 1;
+		unsolvable[3][2] = 1;
+		unsolvable[6][1] = 1;
+		unsolvable[2][0] = 2;
+		unsolvable[2][1] = 3;
+		unsolvable[2][2] = 4;
+		assertEquals(SolveResult.Status.CONTRADICTION, new SolverCore().solve(unsolvable, SolveLimits.NONE).getStatus());
+	}
+
+	public void testTimesOut() {
+		SolveResult result = new SolverCore().solve(hard(), SolveLimits.NONE.withDeadline(System.nanoTime() - 1));
+		assertEquals(SolveResult.Status.TIMED_OUT, result.getStatus());
+		assertEquals(1, result.getSteps());
+
+		result = new SolverCore().solve(hard(), SolveLimits.NONE.withMaxSteps(2));
+		assertEquals(SolveResult.Status.TIMED_OUT, result.getStatus());
+		assertTrue(result.getBoard().isConsistent());
+	}
+
+	public void testSearchGivenUpLeavesPassesResult() {
+		SolveResult result = new SolverCore().solve(new Integer[16][16], SolveLimits.NONE.withMaxSteps(5));
+		assertEquals(SolveResult.Status.TIMED_OUT, result.getStatus());
+		assertEquals(0, result.getBoard().countSolved());
+	}
+
+	public void testLimitsAreNotFailures() {
+		int[] failed = new int[1];
+		SolverCore core = new SolverCore(new SolveListener() {
+			@Override
+			public void failed(SudokuBoard board, RuntimeException e) {
+				failed[0]++;
+			}
+		}, Difficulty.EXPERT);
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		assertEquals(SolveResult.Status.TIMED_OUT, core.solve(hard(), SolveLimits.NONE.withMaxSteps(2)).getStatus());
+		assertEquals(SolveResult.Status.CANCELLED, core.solve(hard(), SolveLimits.NONE.withToken(token)).getStatus());
+		assertEquals(0, failed[0]);
+	}
+
+	public void testCancels() {
+		CancellationToken token = new CancellationToken();
+		token.cancel();
+		assertEquals(SolveResult.Status.CANCELLED, new SolverCore().solve(hard(), SolveLimits.NONE.withToken(token)).getStatus());
+
+		Thread.currentThread().interrupt();
+		try {
+			assertEquals(SolveResult.Status.CANCELLED, new SolverCore().solve(hard(), SolveLimits.NONE).getStatus());
+			assertTrue(Thread.currentThread().isInterrupted());
+		} finally {
+			Thread.interrupted();
+		}
+	}
+}
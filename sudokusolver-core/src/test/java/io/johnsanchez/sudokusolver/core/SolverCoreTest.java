@@ -0,0 +1,227 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+import junit.framework.TestCase;
+
+/**
+ * Solves the puzzles of <code>expected_result.txt</code>, which holds a 9-line puzzle followed by its 9-line solution.
+ */
+public class SolverCoreTest extends TestCase {
+
+	public void testSolvesExpectedResults() {
+		List<Integer[][]> grids = readGrids("/expected_result.txt");
+		for (int i = 0; i + 1 < grids.size(); i += 2) {
+			SudokuBoard board = new SolverCore().solve(grids.get(i));
+			assertTrue("Puzzle " + i / 2, Arrays.deepEquals(grids.get(i + 1), board.getContentValues()));
+		}
+	}
+
+	public void testSolvesHardPuzzles() {
+		for (String[] puzzle : readLines("/hard_puzzles.txt")) {
+			SudokuBoard board = new SolverCore().solve(parse(puzzle[0]));
+			assertTrue(puzzle[0], Arrays.deepEquals(parse(puzzle[1]), board.getContentValues()));
+		}
+	}
+
+	public void testReusedBoard() {
+		SudokuBoard board = new SudokuBoard();
+		SolverCore core = new SolverCore();
+		for (String[] puzzle : readLines("/hard_puzzles.txt")) {
+			assertSame(board, core.solve(board, parse(puzzle[0])));
+			assertTrue(puzzle[0], Arrays.deepEquals(parse(puzzle[1]), board.getContentValues()));
+		}
+		board.reset();
+		assertEquals(0, board.countSolved());
+		assertEquals(9, board.getCell(4, 4).countPossibilities());
+		assertFalse(board.getCell(0, 0).isGiven());
+	}
+
+	public void testListener() {
+		int[] events = new int[3];
+		SolverCore core = new SolverCore(new SolveListener() {
+			@Override
+			public void progressed(SudokuBoard board, String step, int value) {
+				events[0]++;
+			}
+
+			@Override
+			public void started(SudokuBoard board) {
+				events[1]++;
+			}
+
+			@Override
+			public void finished(SudokuBoard board) {
+				events[2]++;
+			}
+		});
+		core.solve(readGrids("/expected_result.txt").get(0));
+		assertTrue(events[0] > 0);
+		assertEquals(1, events[1]);
+		assertEquals(1, events[2]);
+	}
+
+	public void testCountSolutions() {
+		SolverCore core = new SolverCore();
+		for (String[] puzzle : readLines("/hard_puzzles.txt")) {
+			assertTrue(puzzle[0], core.hasUniqueSolution(parse(puzzle[0])));
+			assertEquals(1, core.countSolutions(parse(puzzle[1]), 5));
+		}
+		assertEquals(5, core.countSolutions(new Integer[9][9], 5));
+		assertEquals(0, core.countSolutions(new Integer[9][9], 0));
+
+		Integer[][] solution = parse(readLines("/hard_puzzles.txt").get(0)[1]);
+		assertFalse(core.hasUniqueSolution(blank(solution, 0.8, 1)));
+		
+		// the first row has no place left for a 9
+		Integer[][] values = new Integer[9][9];
+		for (int j = 0; j < 8; j++) {
+			values[0][j] = j + 1;
+		}
+		values[1][8] = 9;
+		assertEquals(0, core.countSolutions(values, 2));
+		values[1][0] = 1;
+		assertEquals(0, core.countSolutions(values, 2));
+	}
+
+	public void testSolvesLargerBoards() {
+		for (int boxSize = 4; boxSize <= 5; boxSize++) {
+			int size = boxSize * boxSize;
+			Integer[][] solution = SolverEngine.DANCING_LINKS.solve(new Integer[size][size]).getContentValues();
+			Integer[][] puzzle = blank(solution, 0.4, boxSize);
+			SudokuBoard board = new SolverCore().solve(puzzle);
+			assertEquals(size, board.getSize());
+			assertSolves(puzzle, board);
+		}
+	}
+
+	public void testBoardSizes() {
+		SudokuBoard board = new SudokuBoard(4);
+		assertEquals(16, board.getSize());
+		assertEquals(256, board.getCellCount());
+		assertEquals(Candidates.all(16), board.getCell(15, 15).getPossibilityMask());
+		assertSame(board.getGroups()[3][3], board.getUnit(47));
+		board.setValue(16, 0, 0);
+		assertFalse(board.getCell(3, 3).hasPossibility(16));
+		assertTrue(board.getCell(4, 4).hasPossibility(16));
+		assertEquals(3, SudokuBoard.boxSizeOf(9));
+		try {
+			SudokuBoard.boxSizeOf(10);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// not a square
+		}
+		try {
+			board.load(new Integer[9][9]);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// a 9x9 puzzle on a 16x16 board
+		}
+	}
+
+	public void testCandidateMasks() {
+		SudokuBoard board = new SudokuBoard();
+		board.setValue(5, 0, 0);
+		SudokuCell cell = board.getRows()[0].getContents().get(4);
+		assertFalse(cell.hasPossibility(5));
+		assertEquals(8, cell.countPossibilities());
+		assertEquals(Candidates.ALL & ~Candidates.bit(5), cell.getPossibilityMask());
+		assertEquals(Candidates.toSet(cell.getPossibilityMask()), cell.getPossibilities());
+		assertFalse(board.getGroups()[0][0].getUnsolvedValues().contains(5));
+		assertEquals(1, Candidates.lowest(cell.getPossibilityMask()));
+	}
+
+	/**
+	 * @return the puzzle and the solution of each line, see {@link #parse(String)}
+	 */
+	static List<String[]> readLines(String resource) {
+		List<String[]> lines = new ArrayList<>();
+		try (Scanner scanner = new Scanner(SolverCoreTest.class.getResourceAsStream(resource))) {
+			while (scanner.hasNextLine()) {
+				String line = scanner.nextLine().trim();
+				if (!line.isEmpty()) {
+					lines.add(line.split("\\s+"));
+				}
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * @param line one character per cell, row by row, with <code>.</code> for a blank: the digits 1..9 and then
+	 * the letters from <code>A</code> for 10, e.g. 81 characters for a 9x9 board and 256 for a 16x16 one
+	 */
+	static Integer[][] parse(String line) {
+		int size = (int) Math.round(Math.sqrt(line.length()));
+		Integer[][] values = new Integer[size][size];
+		for (int i = 0; i < size * size; i++) {
+			char c = line.charAt(i);
+			values[i / size][i % size] = c == '.' ? null : Character.digit(c, Character.MAX_RADIX);
+		}
+		return values;
+	}
+
+	/**
+	 * @return a copy of <code>solution</code> with about <code>ratio</code> of its cells blanked
+	 */
+	static Integer[][] blank(Integer[][] solution, double ratio, long seed) {
+		Random random = new Random(seed);
+		Integer[][] puzzle = new Integer[solution.length][];
+		for (int i = 0; i < solution.length; i++) {
+			puzzle[i] = solution[i].clone();
+			for (int j = 0; j < puzzle[i].length; j++) {
+				if (random.nextDouble() < ratio) {
+					puzzle[i][j] = null;
+				}
+			}
+		}
+		return puzzle;
+	}
+
+	/**
+	 * Checks that <code>board</code> keeps the givens of <code>puzzle</code> and has every digit once in each group.
+	 */
+	static void assertSolves(Integer[][] puzzle, SudokuBoard board) {
+		int size = board.getSize();
+		assertEquals(board.getCellCount(), board.countSolved());
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				if (puzzle[i][j] != null) {
+					assertEquals(puzzle[i][j], board.getCell(i, j).getValue());
+				}
+			}
+		}
+		for (int i = 0; i < 3 * size; i++) {
+			long values = Candidates.NONE;
+			for (SudokuCell cell : board.getUnit(i).getContents()) {
+				values |= Candidates.bit(cell.getValue());
+			}
+			assertEquals(Candidates.all(size), values);
+		}
+	}
+
+	static List<Integer[][]> readGrids(String resource) {
+		List<Integer[][]> grids = new ArrayList<>();
+		try (Scanner scanner = new Scanner(SolverCoreTest.class.getResourceAsStream(resource))) {
+			List<Integer[]> rows = new ArrayList<>();
+			while (scanner.hasNextLine()) {
+				String line = scanner.nextLine();
+				Integer[] vals = new Integer[9];
+				for (int i = 0; i < vals.length && i < line.length(); i++) {
+					char c = line.charAt(i);
+					vals[i] = c == ' ' ? null : c - '0';
+				}
+				rows.add(vals);
+				if (rows.size() == 9) {
+					grids.add(rows.toArray(new Integer[9][]));
+					rows.clear();
+				}
+			}
+		}
+		return grids;
+	}
+}
@@ -0,0 +1,138 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+public class SolverDaemonTest extends TestCase {
+
+	private Path directory;
+	private SolverDaemon daemon;
+
+	@Override
+	protected void setUp() throws IOException {
+		directory = Files.createTempDirectory("daemon");
+		daemon = new SolverDaemon(directory.resolve("solver.sock"), SolverEngine.CORE);
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		daemon.close();
+		Files.delete(directory);
+	}
+
+	public void testSolvesOverOneConnection() throws IOException {
+		try (SolverClient client = SolverClient.connect(daemon.getSocket())) {
+			client.ping();
+			for (String[] line : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+				assertTrue(Arrays.deepEquals(SolverCoreTest.parse(line[1]), client.solve(SolverCoreTest.parse(line[0]))));
+			}
+			Integer[][] small = new Integer[4][4];
+			small[0][0] = 4;
+			Integer[][] solution = client.solve(small);
+			assertEquals(Integer.valueOf(4), solution[0][0]);
+		}
+	}
+
+	public void testNoSolutionAndErrors() throws IOException {
+		try (SolverClient client = SolverClient.connect(daemon.getSocket())) {
+			Integer[][] puzzle = new Integer[9][9];
+			puzzle[0][0] = 1;
+			puzzle[0][1] = 1;
+			assertNull(client.solve(puzzle));
+			Integer[][] tooLarge = new Integer[4][4];
+			tooLarge[0][0] = 5;
+			try {
+				client.solve(tooLarge);
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("'5'"));
+			}
+			// the connection is still usable
+			client.ping();
+		}
+	}
+
+	public void testMalformedRequests() throws IOException {
+		try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(daemon.getSocket()))) {
+			SolverProtocol.Frame response = new SolverProtocol.Frame();
+			byte[] body = new byte[81 * 81];
+			Arrays.fill(body, (byte) '.');
+			for (int length : new int[] { 0, 36 * 36, 81 * 81 }) {
+				SolverProtocol.write(channel, SolverProtocol.SOLVE, body, length);
+				assertTrue(response.read(channel));
+				assertEquals(SolverProtocol.ERROR, response.type);
+				assertTrue(response.text(), response.text().contains(length + " cells"));
+			}
+			// the connection is still usable
+			SolverProtocol.write(channel, SolverProtocol.SOLVE, body, 16);
+			assertTrue(response.read(channel));
+			assertEquals(SolverProtocol.SOLVED, response.type);
+		}
+		try (SolverClient client = SolverClient.connect(daemon.getSocket())) {
+			client.solve(new Integer[36][36]);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// not sent, the format has no digits for it
+		}
+	}
+
+	public void testConcurrentClients() throws Exception {
+		List<String[]> lines = SolverCoreTest.readLines("/hard_puzzles.txt");
+		ExecutorService clients = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int c = 0; c < 8; c++) {
+				results.add(clients.submit(() -> {
+					try (SolverClient client = SolverClient.connect(daemon.getSocket())) {
+						for (String[] line : lines) {
+							if (!Arrays.deepEquals(SolverCoreTest.parse(line[1]), client.solve(SolverCoreTest.parse(line[0])))) {
+								return false;
+							}
+						}
+					}
+					return true;
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			clients.shutdown();
+		}
+	}
+
+	public void testTimesOut() throws IOException {
+		Integer[][] puzzle = SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0]);
+		for (SolverEngine engine : SolverEngine.values()) {
+			try (SolverDaemon impatient = new SolverDaemon(directory.resolve("impatient.sock"), engine, SolveListener.NONE, 0,
+					TimeUnit.MILLISECONDS); SolverClient client = SolverClient.connect(impatient.getSocket())) {
+				try {
+					client.solve(puzzle);
+					fail(engine.toString());
+				} catch (SolverClient.TimedOutException e) {
+					// expected
+				}
+				// the connection is still usable
+				client.ping();
+			}
+		}
+	}
+
+	public void testRemovesSocketOnClose() throws IOException {
+		assertTrue(Files.exists(daemon.getSocket()));
+		daemon.close();
+		assertFalse(Files.exists(daemon.getSocket()));
+	}
+}
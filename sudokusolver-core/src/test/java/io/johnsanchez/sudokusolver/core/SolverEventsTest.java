@@ -0,0 +1,81 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import junit.framework.TestCase;
+
+public class SolverEventsTest extends TestCase {
+
+	public void testRecordsPhases() throws Exception {
+		Integer[][] values = SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0]);
+		Path file = Files.createTempFile("solver", ".jfr");
+		long puzzleId;
+		try (Recording recording = new Recording()) {
+			for (String name : new String[] { "BoardCreated", "SetValues", "SolveNext", "ReducePossibility", "SearchBranch", "Solve" }) {
+				recording.enable(SolverEvents.PREFIX + name).withThreshold(Duration.ZERO);
+			}
+			recording.start();
+			SudokuBoard board = new SudokuBoard();
+			board.load(values);
+			new SolverCore().solve(board);
+			puzzleId = board.getPuzzleId();
+			recording.stop();
+			recording.dump(file);
+		}
+
+		Map<String, Integer> counts = new HashMap<>();
+		try {
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			for (RecordedEvent event : events) {
+				String name = event.getEventType().getName().substring(SolverEvents.PREFIX.length());
+				counts.merge(name, 1, Integer::sum);
+				if (name.equals("Solve")) {
+					assertEquals(puzzleId, event.getLong("puzzleId"));
+					assertTrue(event.getBoolean("solved"));
+					assertTrue(event.getInt("sweeps") > 0);
+					assertEquals(81 - countGivens(values), event.getInt("cellsSolved"));
+				} else if (name.equals("SetValues")) {
+					assertEquals(countGivens(values), event.getInt("cellsSolved"));
+				}
+			}
+		} finally {
+			Files.delete(file);
+		}
+		assertEquals(Integer.valueOf(1), counts.get("BoardCreated"));
+		assertEquals(Integer.valueOf(1), counts.get("SetValues"));
+		assertEquals(Integer.valueOf(1), counts.get("Solve"));
+		assertTrue(counts.get("SolveNext") >= 9);
+		assertTrue(counts.containsKey("ReducePossibility"));
+	}
+
+	public void testPuzzleIdFollowsGivens() {
+		Integer[][] values = SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0]);
+		SudokuBoard board = new SudokuBoard();
+		assertEquals(0, board.getPuzzleId());
+		board.load(values);
+		long puzzleId = board.getPuzzleId();
+		new SolverCore().solve(board);
+		assertEquals(puzzleId, board.getPuzzleId());
+		assertEquals(puzzleId, board.copy().getPuzzleId());
+		board.load(new Integer[9][9]);
+		assertEquals(0, board.getPuzzleId());
+	}
+
+	private static int countGivens(Integer[][] values) {
+		int givens = 0;
+		for (Integer[] row : values) {
+			for (Integer value : row) {
+				givens += value == null ? 0 : 1;
+			}
+		}
+		return givens;
+	}
+}
@@ -0,0 +1,82 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+public class SolverMetricsTest extends TestCase {
+
+	public void testCountsEveryPlacement() {
+		SolverMetrics metrics = new SolverMetrics();
+		SolverCore solver = new SolverCore(metrics);
+		List<String[]> puzzles = SolverCoreTest.readLines("/hard_puzzles.txt");
+		long blanks = 0;
+		for (String[] puzzle : puzzles) {
+			Integer[][] values = SolverCoreTest.parse(puzzle[0]);
+			SolverCoreTest.assertSolves(values, solver.solve(values));
+			for (Integer[] row : values) {
+				for (Integer value : row) {
+					blanks += value == null ? 1 : 0;
+				}
+			}
+		}
+
+		assertEquals(blanks, total(metrics.getPlacements()));
+		assertEquals(puzzles.size(), metrics.getPuzzles());
+		assertEquals(puzzles.size(), sum(metrics.getSolveTimeHistogram()));
+		assertEquals(puzzles.size(), sum(metrics.getSweepHistogram()));
+		assertTrue(metrics.getSweeps() >= puzzles.size());
+		assertTrue(metrics.getMaxSolveNanos() <= metrics.getTotalSolveNanos());
+		assertTrue(metrics.getPlacements().get("SINGLE") > 0);
+		assertTrue(metrics.getEliminations().get("PAIR") > 0);
+
+		metrics.reset();
+		assertEquals(0, metrics.getPuzzles());
+		assertEquals(0, sum(metrics.getSolveTimeHistogram()));
+	}
+
+	public void testCountsStalls() {
+		SolverMetrics metrics = new SolverMetrics();
+		SolverCore solver = new SolverCore(metrics, Difficulty.EASY);
+		solver.solve(new Integer[9][9]);
+		assertEquals(1, metrics.getStalls());
+		assertEquals(0, metrics.getFailures());
+		assertEquals(Long.valueOf(0), metrics.getPlacements().get("SEARCH"));
+
+		new SolverCore(metrics).solve(new Integer[9][9]);
+		assertEquals(2, metrics.getStalls());
+		assertEquals(Long.valueOf(81), metrics.getPlacements().get("SEARCH"));
+	}
+
+	public void testReadableThroughJmx() throws Exception {
+		SolverMetrics metrics = new SolverMetrics();
+		ObjectName name = metrics.register("test");
+		try {
+			new SolverCore(metrics).solve(SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0]));
+			assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Puzzles"));
+			assertNotNull(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Placements"));
+		} finally {
+			SolverMetrics.unregister(name);
+		}
+	}
+
+	private static long sum(long[] counts) {
+		long sum = 0;
+		for (long count : counts) {
+			sum += count;
+		}
+		return sum;
+	}
+
+	private static long total(Map<String, Long> counts) {
+		long sum = 0;
+		for (long count : counts.values()) {
+			sum += count;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,85 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class StrategySchedulerTest extends TestCase {
+
+	public void testSolvesInAnyOrder() {
+		List<List<SolvingStrategy>> orders = List.of(CoreStrategy.of(Difficulty.HARD),
+				List.of(CoreStrategy.NAKED_PAIRS, CoreStrategy.PAIRS, CoreStrategy.LINES, CoreStrategy.BRUTE, CoreStrategy.MISSING),
+				List.of(CoreStrategy.LINES, CoreStrategy.SINGLES));
+		for (String[] line : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			Integer[][] values = SolverCoreTest.parse(line[0]);
+			for (List<SolvingStrategy> order : orders) {
+				SolverCore core = new SolverCore(SolveListener.NONE, new StrategyScheduler(order), true);
+				SolverCoreTest.assertSolves(values, core.solve(values));
+			}
+		}
+	}
+
+	public void testRunsCostlyStrategiesOnceCheapOnesStall() {
+		List<SolvingStrategy> order = new ArrayList<>();
+		List<String> runs = new ArrayList<>();
+		for (CoreStrategy strategy : List.of(CoreStrategy.MISSING, CoreStrategy.BRUTE, CoreStrategy.PAIRS)) {
+			order.add(new SolvingStrategy() {
+				@Override
+				public String getName() {
+					return strategy.getName();
+				}
+
+				@Override
+				public void apply(SudokuBoard board, long[] units, SolveListener listener) {
+					runs.add(getName());
+					strategy.apply(board, units, listener);
+				}
+			});
+		}
+		Integer[][] values = SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(0)[0]);
+		new SolverCore(SolveListener.NONE, new StrategyScheduler(order), true).solve(values);
+
+		// every pass starts over from the first strategy, and the next one only runs after a pass changed nothing
+		assertEquals("MISSING", runs.get(0));
+		for (int i = 1; i < runs.size(); i++) {
+			if (runs.get(i).equals("PAIRS")) {
+				assertEquals("BRUTE", runs.get(i - 1));
+			} else if (runs.get(i).equals("BRUTE")) {
+				assertEquals("MISSING", runs.get(i - 1));
+			}
+		}
+		assertTrue(runs.contains("PAIRS"));
+	}
+
+	public void testStatistics() {
+		StrategyScheduler scheduler = new StrategyScheduler(CoreStrategy.of(Difficulty.HARD), true);
+		SolverCore core = new SolverCore(SolveListener.NONE, scheduler, true);
+		for (String[] line : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			core.solve(SolverCoreTest.parse(line[0]));
+		}
+		List<StrategyScheduler.Statistics> statistics = scheduler.getStatistics();
+		assertEquals(CoreStrategy.of(Difficulty.HARD).size(), statistics.size());
+		assertEquals("MISSING", statistics.get(0).getName());
+		long placed = 0;
+		for (StrategyScheduler.Statistics strategy : statistics) {
+			assertTrue(strategy.toString(), strategy.getApplications() > 0);
+			assertTrue(strategy.getProgressed() <= strategy.getApplications());
+			placed += strategy.getPlaced();
+		}
+		assertTrue(placed > 0);
+		// the cheaper strategies ran at least as often as the costly ones
+		assertTrue(statistics.get(0).getApplications() >= statistics.get(statistics.size() - 1).getApplications());
+
+		assertTrue(new StrategyScheduler(CoreStrategy.of(Difficulty.HARD)).getStatistics().isEmpty());
+	}
+
+	public void testNeedsAStrategy() {
+		try {
+			new StrategyScheduler(List.of());
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.List;
+
+import io.johnsanchez.sudokusolver.core.SudokuCellGroup.LineMode;
+import junit.framework.TestCase;
+
+public class SubsetsTest extends TestCase {
+
+	private static void restrict(SudokuCell cell, long mask) {
+		for (long removed = cell.getPossibilityMask() & ~mask; removed != 0; removed = Candidates.withoutLowest(removed)) {
+			cell.removePossibility(Candidates.lowest(removed));
+		}
+	}
+
+	public void testNakedTriple() {
+		SudokuBoard board = new SudokuBoard();
+		SudokuCellGroup box = board.getUnits(LineMode.GROUP)[4];
+		List<SudokuCell> cells = box.getContents();
+		restrict(cells.get(0), Candidates.of(1, 2));
+		restrict(cells.get(4), Candidates.of(2, 3));
+		restrict(cells.get(8), Candidates.of(1, 3));
+
+		Subsets.naked(box, Subsets.MAX_SIZE);
+		for (int i = 0; i < cells.size(); i++) {
+			if (i % 4 != 0) {
+				assertEquals(Candidates.of(4, 5, 6, 7, 8, 9), cells.get(i).getPossibilityMask());
+			}
+		}
+		assertEquals(Candidates.of(1, 2), cells.get(0).getPossibilityMask());
+	}
+
+	public void testHiddenPair() {
+		SudokuBoard board = new SudokuBoard();
+		SudokuCellGroup row = board.getUnits(LineMode.ROW)[0];
+		List<SudokuCell> cells = row.getContents();
+		for (int i = 2; i < cells.size(); i++) {
+			restrict(cells.get(i), Candidates.of(1, 2, 3, 4, 5, 6, 7));
+		}
+
+		board.getSubsets().hidden(row, Subsets.MAX_SIZE);
+		assertEquals(Candidates.of(8, 9), cells.get(0).getPossibilityMask());
+		assertEquals(Candidates.of(8, 9), cells.get(1).getPossibilityMask());
+		assertEquals(Candidates.of(1, 2, 3, 4, 5, 6, 7), cells.get(2).getPossibilityMask());
+	}
+
+	public void testPlacesOfOneGroupDoNotCarryOver() {
+		SudokuBoard board = new SudokuBoard();
+		SudokuCellGroup[] rows = board.getUnits(LineMode.ROW);
+		for (int i = 2; i < 9; i++) {
+			restrict(rows[0].getContents().get(i), Candidates.of(1, 2, 3, 4, 5, 6, 7));
+		}
+		// every value has every place in the open row searched first, which would hide the pair
+		long eliminated = board.countEliminated();
+		board.getSubsets().hidden(rows[1], Subsets.MAX_SIZE);
+		assertEquals(eliminated, board.countEliminated());
+
+		board.getSubsets().hidden(rows[0], Subsets.MAX_SIZE);
+		assertEquals(Candidates.of(8, 9), rows[0].getContents().get(0).getPossibilityMask());
+		assertEquals(Candidates.of(8, 9), rows[0].getContents().get(1).getPossibilityMask());
+	}
+
+	public void testNothingWithoutSubset() {
+		SudokuBoard board = new SudokuBoard();
+		SudokuCellGroup col = board.getUnits(LineMode.COLUMN)[3];
+		restrict(col.getContents().get(0), Candidates.of(1, 2));
+		long eliminated = board.countEliminated();
+		Subsets.naked(col, Subsets.MAX_SIZE);
+		board.getSubsets().hidden(col, Subsets.MAX_SIZE);
+		assertEquals(eliminated, board.countEliminated());
+	}
+
+	public void testSolvesWithSubsets() {
+		for (String[] line : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			Integer[][] values = SolverCoreTest.parse(line[0]);
+			SolverCoreTest.assertSolves(values, new SolverCore().solve(values));
+		}
+	}
+}
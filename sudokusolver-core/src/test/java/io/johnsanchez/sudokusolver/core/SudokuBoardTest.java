@@ -0,0 +1,175 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class SudokuBoardTest extends TestCase {
+
+	/**
+	 * A hard puzzle after the passes, with flags, locks and partners left on it.
+	 */
+	private static SudokuBoard propagated(int index) {
+		SudokuBoard board = new SudokuBoard();
+		board.load(SolverCoreTest.parse(SolverCoreTest.readLines("/hard_puzzles.txt").get(index)[0]));
+		new SolverCore().propagate(board, SolveListener.NONE);
+		return board;
+	}
+
+	public void testSnapshotRestoresEverything() {
+		for (int index = 0; index < 5; index++) {
+			SudokuBoard board = propagated(index);
+			SudokuBoard.Snapshot snapshot = board.snapshot();
+			int solved = board.countSolved();
+			SudokuBoard solution = new SolverCore().solve(board);
+			Integer[][] values = solution.getContentValues();
+
+			board.restore(snapshot);
+			assertEquals(snapshot, board.snapshot());
+			assertEquals(solved, board.countSolved());
+
+			SudokuBoard other = new SudokuBoard();
+			other.restore(snapshot);
+			assertEquals(snapshot, other.snapshot());
+			assertTrue(Arrays.deepEquals(values, new SolverCore().solve(other).getContentValues()));
+		}
+	}
+
+	public void testUndoesGuesses() {
+		SolverCore core = new SolverCore();
+		for (int index = 0; index < 5; index++) {
+			SudokuBoard board = propagated(index);
+			SudokuBoard.Snapshot before = board.snapshot();
+			int mark = board.mark();
+			SudokuCell cell = board.mostConstrained();
+			if (cell == null) {
+				continue;
+			}
+			for (long rest = cell.getPossibilityMask(); rest != 0; rest = Candidates.withoutLowest(rest)) {
+				try {
+					cell.setValue(Candidates.lowest(rest));
+					int inner = board.mark();
+					core.propagate(board, SolveListener.NONE);
+					board.undo(inner);
+					assertEquals(Candidates.lowest(rest), (int) cell.getValue());
+				} catch (ContradictionException e) {
+					// undone all the same
+				}
+				board.undo(mark);
+				assertEquals(before, board.snapshot());
+			}
+			board.clearTrail();
+			assertEquals(before, board.snapshot());
+		}
+	}
+
+	public void testUndoneBoardSolvesTheSame() {
+		List<String[]> puzzles = SolverCoreTest.readLines("/hard_puzzles.txt");
+		SudokuBoard board = new SudokuBoard();
+		Integer[][] values = SolverCoreTest.parse(puzzles.get(0)[0]);
+		Integer[][] solution = SolverCoreTest.parse(puzzles.get(0)[1]);
+		board.load(values);
+		int mark = board.mark();
+		for (int i = 0; i < 9; i++) {
+			for (int j = 0; j < 9; j++) {
+				if (values[i][j] == null) {
+					board.getCell(i, j).setValue(solution[i][j]);
+				}
+			}
+		}
+		assertEquals(81, board.countSolved());
+		board.undo(mark);
+		SolverCoreTest.assertSolves(values, new SolverCore().solve(board));
+	}
+
+	public void testSearchKeepsTheMarksBeforeIt() {
+		SolverCore core = new SolverCore();
+		for (int index = 0; index < 5; index++) {
+			SudokuBoard board = propagated(index);
+			SudokuBoard.Snapshot before = board.snapshot();
+			int mark = board.mark();
+			BacktrackingSearch search = new BacktrackingSearch(core);
+			assertEquals(1, search.count(board.copy(), 2));
+			assertTrue(search.search(board));
+			assertEquals(81, board.countSolved());
+			board.undo(mark);
+			assertEquals(before, board.snapshot());
+			board.clearTrail();
+		}
+	}
+
+	public void testClearedTrailCannotBeUndone() {
+		SudokuBoard board = propagated(0);
+		int mark = board.mark();
+		board.reset();
+		try {
+			board.undo(mark + 1);
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		try {
+			board.undo(mark);
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	public void testPositionsFollowTheCells() {
+		SolverCore core = new SolverCore();
+		for (int index = 0; index < 5; index++) {
+			SudokuBoard board = propagated(index);
+			assertPositions(board);
+			SudokuCell cell = board.mostConstrained();
+			if (cell != null) {
+				int mark = board.mark();
+				try {
+					cell.setValue(Candidates.lowest(cell.getPossibilityMask()));
+					core.propagate(board, SolveListener.NONE);
+				} catch (ContradictionException e) {
+					// undone all the same
+				}
+				assertPositions(board);
+				board.undo(mark);
+				assertPositions(board);
+			}
+			core.solve(board);
+			assertPositions(board);
+			board.reset();
+			assertPositions(board);
+		}
+	}
+
+	private static void assertPositions(SudokuBoard board) {
+		for (int value = 1; value <= board.getSize(); value++) {
+			for (int line = 0; line < board.getSize(); line++) {
+				long row = 0;
+				long col = 0;
+				for (int k = 0; k < board.getSize(); k++) {
+					SudokuCell inRow = board.getCell(line, k);
+					SudokuCell inCol = board.getCell(k, line);
+					if (inRow.getValue() == null && inRow.hasPossibility(value)) {
+						row |= 1L << k;
+					}
+					if (inCol.getValue() == null && inCol.hasPossibility(value)) {
+						col |= 1L << k;
+					}
+				}
+				assertEquals(row, board.getRowPositions(value, line));
+				assertEquals(col, board.getColPositions(value, line));
+			}
+			for (SudokuCellGroup box : board.getUnits(SudokuCellGroup.LineMode.GROUP)) {
+				long positions = 0;
+				List<SudokuCell> contents = box.getContents();
+				for (int k = 0; k < contents.size(); k++) {
+					if (contents.get(k).getValue() == null && contents.get(k).hasPossibility(value)) {
+						positions |= 1L << k;
+					}
+				}
+				assertEquals(positions, box.positionsOf(value));
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package io.johnsanchez.sudokusolver.core;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.johnsanchez.sudokusolver.core.SudokuCellGroup.LineMode;
+import junit.framework.TestCase;
+
+public class TopologyTest extends TestCase {
+
+	public void testPeers() {
+		for (int boxSize = 2; boxSize <= 5; boxSize++) {
+			SudokuBoard board = new SudokuBoard(boxSize);
+			Topology topology = board.getTopology();
+			assertSame(topology, new SudokuBoard(boxSize).getTopology());
+			for (int row = 0; row < board.getSize(); row++) {
+				for (int col = 0; col < board.getSize(); col++) {
+					SudokuCell cell = board.getCell(row, col);
+					Set<SudokuCell> expected = new HashSet<>();
+					expected.addAll(cell.getRowGroup().getContents());
+					expected.addAll(cell.getColGroup().getContents());
+					expected.addAll(cell.getGroup().getContents());
+					expected.remove(cell);
+
+					Set<SudokuCell> peers = new HashSet<>();
+					for (int k = 0; k < topology.getPeerCount(); k++) {
+						SudokuCell peer = board.getCell(topology.peer(cell.getIndex(), k));
+						assertTrue(peers.add(peer));
+						assertTrue(topology.sees(cell.getIndex(), peer.getIndex()));
+					}
+					assertEquals(expected, peers);
+					assertFalse(topology.sees(cell.getIndex(), cell.getIndex()));
+				}
+			}
+		}
+		assertEquals(20, new SudokuBoard().getTopology().getPeerCount());
+	}
+
+	public void testUnits() {
+		SudokuBoard board = new SudokuBoard();
+		Topology topology = board.getTopology();
+		for (LineMode mode : LineMode.values()) {
+			for (SudokuCellGroup unit : board.getUnits(mode)) {
+				List<SudokuCell> contents = unit.getContents();
+				for (int k = 0; k < contents.size(); k++) {
+					SudokuCell cell = contents.get(k);
+					assertEquals(cell.getIndex(), topology.cellOf(unit.getIndex(), k));
+					assertEquals(cell.getRowGroup().getIndex(), topology.unitOf(cell.getIndex(), 0));
+					assertEquals(cell.getColGroup().getIndex(), topology.unitOf(cell.getIndex(), 1));
+					assertEquals(cell.getGroup().getIndex(), topology.unitOf(cell.getIndex(), 2));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package io.johnsanchez.sudokusolver.core;
+
+import junit.framework.TestCase;
+
+public class WingsTest extends TestCase {
+
+	private static void restrict(SudokuCell cell, Integer... values) {
+		long mask = Candidates.of(values);
+		for (long removed = cell.getPossibilityMask() & ~mask; removed != 0; removed = Candidates.withoutLowest(removed)) {
+			cell.removePossibility(Candidates.lowest(removed));
+		}
+	}
+
+	public void testXyWing() {
+		SudokuBoard board = new SudokuBoard();
+		restrict(board.getCell(0, 0), 1, 2);
+		restrict(board.getCell(0, 4), 1, 3);
+		restrict(board.getCell(4, 0), 2, 3);
+
+		Wings.eliminate(board, true, board.allUnits());
+		assertTrue(board.getCell(4, 4).hasPossibility(3));
+		Wings.eliminate(board, false, board.allUnits());
+		// the only cell which sees both pincers
+		assertFalse(board.getCell(4, 4).hasPossibility(3));
+		assertTrue(board.getCell(4, 5).hasPossibility(3));
+		assertTrue(board.getCell(1, 4).hasPossibility(3));
+		assertTrue(board.getCell(0, 4).hasPossibility(3));
+	}
+
+	public void testXyzWing() {
+		SudokuBoard board = new SudokuBoard();
+		restrict(board.getCell(0, 0), 1, 2, 3);
+		restrict(board.getCell(0, 1), 1, 3);
+		restrict(board.getCell(1, 0), 2, 3);
+
+		Wings.eliminate(board, true, board.allUnits());
+		// the cells which see the pivot and both pincers
+		for (int[] cell : new int[][] { { 0, 2 }, { 1, 1 }, { 1, 2 }, { 2, 0 }, { 2, 1 }, { 2, 2 } }) {
+			assertFalse(board.getCell(cell[0], cell[1]).hasPossibility(3));
+		}
+		assertTrue(board.getCell(0, 0).hasPossibility(3));
+		assertTrue(board.getCell(0, 5).hasPossibility(3));
+		assertTrue(board.getCell(5, 0).hasPossibility(3));
+	}
+
+	public void testHardDeducesMore() {
+		SolverCore hard = new SolverCore(SolveListener.NONE, Difficulty.HARD);
+		for (String[] line : SolverCoreTest.readLines("/hard_puzzles.txt")) {
+			Integer[][] values = SolverCoreTest.parse(line[0]);
+			Integer[][] solution = SolverCoreTest.parse(line[1]);
+			SudokuBoard board = hard.solve(values);
+			for (int i = 0; i < 9; i++) {
+				for (int j = 0; j < 9; j++) {
+					assertTrue(board.getCell(i, j).hasPossibility(solution[i][j]));
+				}
+			}
+		}
+	}
+}